@@ -0,0 +1,57 @@
+package com.paycanvas.api.security;
+
+import com.paycanvas.api.service.JwtService;
+import io.jsonwebtoken.Claims;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JwtAuthenticationFilterのトークン解析部分（署名検証・クレーム取得）のベンチマーク。
+ *
+ * <p>検証済みトークンのキャッシュ有無で、同一トークンを繰り返し受け取った場合の所要時間を比較します。
+ * 実行: {@code ./gradlew jmh}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtFilterBenchmark {
+  private static final String SECRET = "benchmark-secret-benchmark-secret";
+
+  private JwtService uncached;
+  private JwtService cached;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    uncached = new JwtService(SECRET, 60, 0, "HS256", null, "");
+    cached = new JwtService(SECRET, 60, 10_000, "HS256", null, "");
+
+    FeatureSet features = FeatureSet.of(List.of(1, 2, 3));
+    token = cached.generateAccessToken(1, 1, 0, "COMPANY_ADMIN", features, null).token();
+  }
+
+  @Benchmark
+  public void verifyEveryRequest(Blackhole blackhole) {
+    readClaims(uncached.parseToken(token), blackhole);
+  }
+
+  @Benchmark
+  public void verifiedCache(Blackhole blackhole) {
+    readClaims(cached.parseToken(token), blackhole);
+  }
+
+  // フィルターと同じクレームを参照する
+  private static void readClaims(Claims claims, Blackhole blackhole) {
+    blackhole.consume(Integer.valueOf(claims.getSubject()));
+    blackhole.consume(claims.get("role"));
+    blackhole.consume(claims.get("ver", Number.class));
+  }
+}
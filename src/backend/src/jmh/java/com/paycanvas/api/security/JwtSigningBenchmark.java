@@ -0,0 +1,85 @@
+package com.paycanvas.api.security;
+
+import com.paycanvas.api.service.JwtKeyProvider;
+import com.paycanvas.api.service.JwtService;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * アクセストークンの署名・検証の所要時間をHS256とRS256で比較するベンチマーク。
+ *
+ * <p>検証済みトークンのキャッシュは無効にし、毎回署名検証する場合の値を測定します。
+ * 実行: {@code ./gradlew jmh}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtSigningBenchmark {
+  private static final String SECRET = "benchmark-secret-benchmark-secret";
+  private static final FeatureSet FEATURES = FeatureSet.of(List.of(1, 2, 3));
+
+  private JwtService hs256;
+  private JwtService rs256;
+  private String hs256Token;
+  private String rs256Token;
+
+  @Setup
+  public void setUp() throws NoSuchAlgorithmException {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    KeyPair keyPair = generator.generateKeyPair();
+    JwtKeyProvider keys =
+        new JwtKeyProvider() {
+          @Override
+          public SigningKey currentSigningKey() {
+            return new SigningKey("benchmark", keyPair.getPrivate());
+          }
+
+          @Override
+          public Optional<Key> verificationKey(String kid) {
+            return Optional.of(keyPair.getPublic());
+          }
+        };
+
+    hs256 = new JwtService(SECRET, 60, 0, "HS256", null, "");
+    rs256 = new JwtService(SECRET, 60, 0, "RS256", keys, "");
+    hs256Token = sign(hs256);
+    rs256Token = sign(rs256);
+  }
+
+  @Benchmark
+  public String signHs256() {
+    return sign(hs256);
+  }
+
+  @Benchmark
+  public String signRs256() {
+    return sign(rs256);
+  }
+
+  @Benchmark
+  public Object verifyHs256() {
+    return hs256.parseToken(hs256Token);
+  }
+
+  @Benchmark
+  public Object verifyRs256() {
+    return rs256.parseToken(rs256Token);
+  }
+
+  private static String sign(JwtService jwtService) {
+    return jwtService.generateAccessToken(1, 1, 0, "STAFF", FEATURES, "session").token();
+  }
+}
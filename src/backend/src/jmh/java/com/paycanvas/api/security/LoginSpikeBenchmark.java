@@ -0,0 +1,73 @@
+package com.paycanvas.api.security;
+
+import com.paycanvas.api.config.PasswordHashExecutorConfig;
+import com.paycanvas.api.service.JwtService;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * 始業時刻のログイン集中を想定した、ログイン処理（パスワード照合・アクセストークン発行）のベンチマーク。
+ *
+ * <p>64スレッドから同時にログインし、SampleTimeモードで応答時間の分布（p50/p99）を出力します。
+ * パスワード照合をリクエストスレッドで直接行う場合と、上限付きの専用スレッドプールで行う場合を比較します。
+ * DB問い合わせ（1回）は含みません。実行: {@code ./gradlew jmh}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class LoginSpikeBenchmark {
+  private static final String PASSWORD = "shift-start-password";
+  private static final FeatureSet FEATURES = FeatureSet.of(List.of(1, 2, 3));
+
+  private BCryptPasswordEncoder encoder;
+  private String passwordHash;
+  private ExecutorService passwordHashExecutor;
+  private PasswordVerifier verifier;
+  private JwtService jwtService;
+
+  @Setup
+  public void setUp() {
+    encoder = new BCryptPasswordEncoder();
+    passwordHash = encoder.encode(PASSWORD);
+    passwordHashExecutor = new PasswordHashExecutorConfig().passwordHashExecutor(0, 256);
+    verifier = new PasswordVerifier(encoder, passwordHashExecutor, 30_000);
+    jwtService = new JwtService("benchmark-secret-benchmark-secret", 60, 0, "HS256", null, "");
+  }
+
+  @TearDown
+  public void tearDown() {
+    passwordHashExecutor.shutdownNow();
+  }
+
+  @Benchmark
+  public String loginOnRequestThread() {
+    if (!encoder.matches(PASSWORD, passwordHash)) {
+      throw new IllegalStateException();
+    }
+    return issue();
+  }
+
+  @Benchmark
+  public String loginOnBoundedPool() {
+    if (!verifier.matches(PASSWORD, passwordHash)) {
+      throw new IllegalStateException();
+    }
+    return issue();
+  }
+
+  private String issue() {
+    return jwtService.generateAccessToken(1, 1, 0, "STAFF", FEATURES, "session").token();
+  }
+}
@@ -0,0 +1,46 @@
+package com.paycanvas.api.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ダッシュボード表示時の集計を並列実行する専用スレッドプールの設定クラスです。
+ *
+ * <p>スレッド数と待ち行列を上限付きにし、上限を超えた要求は拒否（該当部分は欠落として応答）します。
+ * リクエスト処理スレッドやスケジューラとはスレッド・DB接続を共有しません。</p>
+ */
+@Configuration
+public class DashboardExecutorConfig {
+
+  /**
+   * ダッシュボード集計用のスレッドプールを生成します。
+   *
+   * @param threads スレッド数
+   * @param queueCapacity 待ち行列の上限
+   * @return スレッドプール
+   */
+  @Bean(name = "dashboardExecutor", destroyMethod = "shutdownNow")
+  public ExecutorService dashboardExecutor(
+      @Value("${paycanvas.dashboard.executor-threads:8}") int threads,
+      @Value("${paycanvas.dashboard.executor-queue-capacity:64}") int queueCapacity) {
+    AtomicInteger threadNumber = new AtomicInteger();
+    return new ThreadPoolExecutor(
+        threads,
+        threads,
+        60L,
+        TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "dashboard-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+}
@@ -0,0 +1,47 @@
+package com.paycanvas.api.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ログイン時のパスワード照合（BCrypt）を実行する専用スレッドプールの設定クラスです。
+ *
+ * <p>BCryptはCPUを占有するため、同時実行数をCPUコア数程度に制限します。始業時刻などのログイン集中時も
+ * 照合がリクエスト処理スレッドを使い切らず、待ち行列を超えた要求は即時に拒否（503応答）します。</p>
+ */
+@Configuration
+public class PasswordHashExecutorConfig {
+
+  /**
+   * パスワード照合用のスレッドプールを生成します。
+   *
+   * @param threads スレッド数（0以下の場合はCPUコア数）
+   * @param queueCapacity 待ち行列の上限
+   * @return スレッドプール
+   */
+  @Bean(name = "passwordHashExecutor", destroyMethod = "shutdownNow")
+  public ExecutorService passwordHashExecutor(
+      @Value("${security.password.hash-threads:0}") int threads,
+      @Value("${security.password.hash-queue-capacity:256}") int queueCapacity) {
+    int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    return new ThreadPoolExecutor(
+        size,
+        size,
+        60L,
+        TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+}
@@ -0,0 +1,11 @@
+package com.paycanvas.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定期実行ジョブ（パーティション保守など）を有効化する設定クラスです。
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -37,7 +37,7 @@ public class SecurityConfig {
             auth ->
                 auth
                     .requestMatchers("/api/auth/login", "/api/auth/refresh").permitAll()
-                    .requestMatchers(HttpMethod.GET, "/health").permitAll()
+                    .requestMatchers(HttpMethod.GET, "/health", "/.well-known/jwks.json").permitAll()
                     .requestMatchers("/api/super/**").hasRole("SUPER_ADMIN")
                     .requestMatchers("/api/feature-toggles/**").hasRole("SUPER_ADMIN")
                     .requestMatchers("/api/masters/**", "/api/staff/**", "/api/daily/**", "/api/payroll/**")
@@ -1,13 +1,22 @@
 package com.paycanvas.api.config;
 
+import com.paycanvas.api.security.FeatureGuardInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
-public class WebConfig {
+public class WebConfig implements WebMvcConfigurer {
+  private final FeatureGuardInterceptor featureGuardInterceptor;
+
+  public WebConfig(FeatureGuardInterceptor featureGuardInterceptor) {
+    this.featureGuardInterceptor = featureGuardInterceptor;
+  }
+
   @Bean
   public CorsFilter corsFilter() {
     CorsConfiguration configuration = new CorsConfiguration();
@@ -21,4 +30,9 @@ public class WebConfig {
     source.registerCorsConfiguration("/**", configuration);
     return new CorsFilter(source);
   }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(featureGuardInterceptor).addPathPatterns("/api/**");
+  }
 }
@@ -4,10 +4,13 @@ import com.paycanvas.api.model.LoginRequest;
 import com.paycanvas.api.model.LoginResponse;
 import com.paycanvas.api.model.RefreshTokenRequest;
 import com.paycanvas.api.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -41,11 +44,16 @@ public class AuthController {
    * 認証に失敗した場合は401エラーを返却します。</p>
    *
    * @param request ログインリクエスト（メールアドレス、パスワード）
-   * @return ログイン成功レスポンス（JWTトークン含む）、または401エラー
+   * @param servletRequest 接続元IPの取得に使用するHTTPリクエスト
+   * @return ログイン成功レスポンス（JWTトークン含む）、401エラー、または試行回数超過時は429エラー
    */
   @PostMapping("/login")
-  public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-    LoginResponse response = authService.login(request.email(), request.password());
+  public ResponseEntity<LoginResponse> login(
+      @Valid @RequestBody LoginRequest request, HttpServletRequest servletRequest) {
+    // 信頼済みプロキシ経由の場合、getRemoteAddr は X-Forwarded-For から解決した接続元を返す
+    // （server.forward-headers-strategy=native / server.tomcat.remoteip.internal-proxies）
+    LoginResponse response =
+        authService.login(request.email(), request.password(), servletRequest.getRemoteAddr());
     if (response == null) {
       return ResponseEntity.status(401).build();
     }
@@ -70,4 +78,19 @@ public class AuthController {
       return ResponseEntity.status(401).build();
     }
   }
+
+  /**
+   * ログアウト
+   *
+   * <p>使用中のアクセストークンを有効期限前に失効させ、リフレッシュトークンを削除します。
+   * 失効は数秒以内に全ノードへ反映されます。</p>
+   *
+   * @param authorization Authorizationヘッダー（Bearerトークン）
+   * @return 204レスポンス
+   */
+  @PostMapping("/logout")
+  public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+    authService.logout(authorization.substring("Bearer ".length()));
+    return ResponseEntity.noContent().build();
+  }
 }
@@ -0,0 +1,44 @@
+package com.paycanvas.api.controller;
+
+import com.paycanvas.api.model.BootstrapResponse;
+import com.paycanvas.api.service.BootstrapService;
+import java.util.Map;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 初期表示データ取得コントローラー
+ *
+ * <p>ログイン直後の画面表示に必要なダッシュボード・マスタ・利用可能機能を1リクエストで返します。
+ * 個別APIへの複数回の往復をまとめ、モバイル回線での初回表示を短縮します。</p>
+ */
+@RestController
+@RequestMapping("/api/bootstrap")
+public class BootstrapController {
+  private final BootstrapService bootstrapService;
+
+  /**
+   * コンストラクタ
+   *
+   * @param bootstrapService 初期表示データサービス
+   */
+  public BootstrapController(BootstrapService bootstrapService) {
+    this.bootstrapService = bootstrapService;
+  }
+
+  /**
+   * 初期表示データを取得
+   *
+   * <p>クエリパラメータに部分名とETag（例: {@code ?stores="abc"&features="def"}）を指定すると、
+   * 変更がない部分はデータ本体を省略し notModified=true で返します。</p>
+   *
+   * @param knownEtags 部分名ごとのクライアント保持ETag
+   * @return 部分ごとのデータ
+   */
+  @GetMapping
+  public BootstrapResponse bootstrap(@RequestParam Map<String, String> knownEtags) {
+    return bootstrapService.bootstrap(knownEtags);
+  }
+}
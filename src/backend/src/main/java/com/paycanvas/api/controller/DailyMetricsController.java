@@ -1,13 +1,29 @@
 package com.paycanvas.api.controller;
 
+import com.paycanvas.api.model.AttendanceAnomalySummary;
+import com.paycanvas.api.model.AttendanceBulkStatusRequest;
+import com.paycanvas.api.model.AttendanceBulkStatusResult;
+import com.paycanvas.api.model.AttendanceImportRequest;
+import com.paycanvas.api.model.AttendanceImportRow;
+import com.paycanvas.api.model.AttendanceIngestResult;
 import com.paycanvas.api.model.DailyAttendance;
 import com.paycanvas.api.model.PersonalMetric;
 import com.paycanvas.api.model.StoreMetric;
+import com.paycanvas.api.service.AttendanceApprovalService;
+import com.paycanvas.api.service.AttendanceIngestService;
 import com.paycanvas.api.service.DailyMetricsService;
+import jakarta.validation.Valid;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -23,28 +39,98 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/daily")
 public class DailyMetricsController {
   private final DailyMetricsService dailyMetricsService;
+  private final AttendanceApprovalService attendanceApprovalService;
+  private final AttendanceIngestService attendanceIngestService;
 
   /**
    * コンストラクタ
    *
    * @param dailyMetricsService 日次メトリクスサービス
+   * @param attendanceApprovalService 勤怠承認サービス
+   * @param attendanceIngestService 勤怠取込サービス
    */
-  public DailyMetricsController(DailyMetricsService dailyMetricsService) {
+  public DailyMetricsController(
+      DailyMetricsService dailyMetricsService,
+      AttendanceApprovalService attendanceApprovalService,
+      AttendanceIngestService attendanceIngestService) {
     this.dailyMetricsService = dailyMetricsService;
+    this.attendanceApprovalService = attendanceApprovalService;
+    this.attendanceIngestService = attendanceIngestService;
   }
 
   /**
    * 日次メトリクス情報を取得
    *
-   * <p>勤怠情報、店舗メトリクス、個人メトリクスなどの日次データを集約して取得します。</p>
+   * <p>勤怠情報、店舗メトリクス、個人メトリクスなどの日次データを集約して取得します。
+   * 対象月を省略した場合は当月のデータを返します。</p>
    *
+   * @param month 対象月（yyyy-MM形式、省略時は当月）
    * @return 日次メトリクス情報のマップ（キー: attendances, storeMetrics, personalMetrics）
    */
   @GetMapping
-  public Map<String, List<?>> list() {
+  public Map<String, List<?>> list(@RequestParam(required = false) YearMonth month) {
+    YearMonth targetMonth = month != null ? month : YearMonth.now();
     return Map.of(
-        "attendances", dailyMetricsService.fetchAttendances(),
-        "storeMetrics", dailyMetricsService.fetchStoreMetrics(),
-        "personalMetrics", dailyMetricsService.fetchPersonalMetrics());
+        "attendances", dailyMetricsService.fetchAttendances(targetMonth),
+        "storeMetrics", dailyMetricsService.fetchStoreMetrics(targetMonth),
+        "personalMetrics", dailyMetricsService.fetchPersonalMetrics(targetMonth));
+  }
+
+  /**
+   * 勤怠を一括で承認・差戻し
+   *
+   * <p>IDリスト、または店舗・期間・従業員IDの条件に一致する勤怠のステータスを一括更新します。
+   * asOfを指定した場合、その時刻以降に更新された勤怠は競合として対象外になります。</p>
+   *
+   * @param request 一括更新リクエスト
+   * @return 更新件数と未承認件数を含む結果
+   */
+  @PostMapping("/attendances/bulk-status")
+  public ResponseEntity<AttendanceBulkStatusResult> bulkUpdateStatus(
+      @Valid @RequestBody AttendanceBulkStatusRequest request) {
+    return ResponseEntity.ok(attendanceApprovalService.updateStatus(request));
+  }
+
+  /**
+   * 勤怠を一括取込
+   *
+   * <p>取込時に異常判定ルール（退勤打刻漏れ・遅刻・勤務時間帯の重複・店舗不明）を評価し、
+   * 該当する勤怠にフラグを立てます。</p>
+   *
+   * @param request 取込リクエスト
+   * @return 登録件数と異常件数を含む結果
+   */
+  @PostMapping("/attendances/import")
+  public ResponseEntity<AttendanceIngestResult> importAttendances(
+      @Valid @RequestBody AttendanceImportRequest request) {
+    return ResponseEntity.ok(attendanceIngestService.importAttendances(request));
+  }
+
+  /**
+   * 勤怠を編集
+   *
+   * <p>編集内容と同一従業員の前後の勤怠を再評価し、異常フラグを更新します。</p>
+   *
+   * @param id 勤怠ID
+   * @param row 編集内容
+   * @return 更新件数と異常件数を含む結果
+   */
+  @PutMapping("/attendances/{id}")
+  public ResponseEntity<AttendanceIngestResult> updateAttendance(
+      @PathVariable Integer id, @Valid @RequestBody AttendanceImportRow row) {
+    return ResponseEntity.ok(attendanceIngestService.updateAttendance(id, row));
+  }
+
+  /**
+   * 勤怠の異常件数を取得
+   *
+   * <p>給与計算前のチェックに使用します。勤怠テーブルは走査せず、集計済みの件数を返します。</p>
+   *
+   * @param month 対象月（yyyy-MM形式、省略時は当月）
+   * @return 異常区分ごとの件数
+   */
+  @GetMapping("/attendances/anomalies")
+  public AttendanceAnomalySummary anomalies(@RequestParam(required = false) YearMonth month) {
+    return attendanceIngestService.anomalySummary(month != null ? month : YearMonth.now());
   }
 }
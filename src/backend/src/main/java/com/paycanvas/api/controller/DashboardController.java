@@ -1,14 +1,15 @@
 package com.paycanvas.api.controller;
 
-import com.paycanvas.api.model.Announcement;
-import com.paycanvas.api.model.PendingTask;
-import com.paycanvas.api.model.SummaryMetric;
+import com.paycanvas.api.model.DashboardTrendPoint;
 import com.paycanvas.api.service.DashboardService;
 import java.util.List;
 import java.util.Map;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * ダッシュボード管理コントローラー
@@ -37,15 +38,30 @@ public class DashboardController {
    * ダッシュボード用サマリ情報を取得
    *
    * <p>ダッシュボード画面に表示する各種情報を集約して取得します。
-   * メトリクス、保留中のタスク、アナウンスメントを含みます。</p>
+   * メトリクス、保留中のタスク、アナウンスメントを含みます。
+   * 各情報は並列に取得し、期限内に取得できなかった情報のキー名を unavailable に返します。</p>
    *
-   * @return サマリ情報のマップ（キー: metrics, tasks, announcements）
+   * @return サマリ情報のマップ（キー: metrics, tasks, announcements, unavailable）
    */
   @GetMapping("/summary")
   public Map<String, List<?>> summary() {
-    return Map.of(
-        "metrics", dashboardService.fetchSummaryMetrics(),
-        "tasks", dashboardService.fetchPendingTasks(),
-        "announcements", dashboardService.fetchAnnouncements());
+    return dashboardService.fetchDashboard();
+  }
+
+  /**
+   * ダッシュボード推移グラフ用の月別データを取得
+   *
+   * <p>人件費・売上・商品販売率・勤怠未承認件数の月別推移を古い順に返します。
+   * 月次集計スナップショットのみを参照します。</p>
+   *
+   * @param months 月数（当月を含む、1〜24、省略時は12）
+   * @return 月別推移のリスト
+   */
+  @GetMapping("/trend")
+  public List<DashboardTrendPoint> trend(@RequestParam(defaultValue = "12") int months) {
+    if (months < 1 || months > 24) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "月数は1〜24で指定してください");
+    }
+    return dashboardService.fetchTrend(months);
   }
 }
@@ -0,0 +1,43 @@
+package com.paycanvas.api.controller;
+
+import com.paycanvas.api.service.JwtKeyService;
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * JWKS公開コントローラー
+ *
+ * <p>アクセストークンの検証に使用する公開鍵をJWKS形式で公開します。検証側のサービスは
+ * 署名用の秘密情報を持たず、この公開鍵をキャッシュしてトークンを検証します。</p>
+ */
+@RestController
+public class JwksController {
+  private final JwtKeyService jwtKeyService;
+
+  /**
+   * コンストラクタ
+   *
+   * @param jwtKeyService JWT署名鍵サービス
+   */
+  public JwksController(JwtKeyService jwtKeyService) {
+    this.jwtKeyService = jwtKeyService;
+  }
+
+  /**
+   * 公開鍵の取得
+   *
+   * <p>新しい鍵は署名に使用する前から含まれるため、検証側は数分間キャッシュしても問題ありません。</p>
+   *
+   * @return JWKS
+   */
+  @GetMapping("/.well-known/jwks.json")
+  public ResponseEntity<Map<String, Object>> jwks() {
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+        .body(jwtKeyService.jwks());
+  }
+}
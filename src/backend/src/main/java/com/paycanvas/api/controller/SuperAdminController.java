@@ -6,6 +6,13 @@ import com.paycanvas.api.model.superadmin.CompanyCreateRequest;
 import com.paycanvas.api.model.superadmin.CompanyCreateResponse;
 import com.paycanvas.api.model.superadmin.CompanySummaryResponse;
 import com.paycanvas.api.model.superadmin.CompanyUpdateRequest;
+import com.paycanvas.api.model.superadmin.DashboardRecomputeStats;
+import com.paycanvas.api.model.superadmin.FeatureRolloutRequest;
+import com.paycanvas.api.model.superadmin.FeatureRolloutResult;
+import com.paycanvas.api.model.superadmin.PrincipalCacheStats;
+import com.paycanvas.api.security.PrincipalCache;
+import com.paycanvas.api.service.DashboardRecomputeService;
+import com.paycanvas.api.service.FeatureToggleService;
 import com.paycanvas.api.service.SuperAdminService;
 import jakarta.validation.Valid;
 import java.util.List;
@@ -25,9 +32,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 @RequestMapping("/api/super")
 public class SuperAdminController {
   private final SuperAdminService superAdminService;
+  private final DashboardRecomputeService dashboardRecomputeService;
+  private final PrincipalCache principalCache;
+  private final FeatureToggleService featureToggleService;
 
-  public SuperAdminController(SuperAdminService superAdminService) {
+  public SuperAdminController(
+      SuperAdminService superAdminService,
+      DashboardRecomputeService dashboardRecomputeService,
+      PrincipalCache principalCache,
+      FeatureToggleService featureToggleService) {
     this.superAdminService = superAdminService;
+    this.dashboardRecomputeService = dashboardRecomputeService;
+    this.principalCache = principalCache;
+    this.featureToggleService = featureToggleService;
   }
 
   /**
@@ -52,6 +69,18 @@ public class SuperAdminController {
     return ResponseEntity.status(201).body(response);
   }
 
+  /**
+   * 指定ユーザーを強制ログアウトさせます。発行済みのアクセストークンは数秒以内に全ノードで無効になります。
+   *
+   * @param id 対象ユーザーID
+   * @return 204レスポンス
+   */
+  @PostMapping("/users/{id}/revoke-sessions")
+  public ResponseEntity<Void> revokeUserSessions(@PathVariable Long id) {
+    superAdminService.revokeUserSessions(id);
+    return ResponseEntity.noContent().build();
+  }
+
   /**
    * 新しい利用企業を登録します。
    *
@@ -77,4 +106,39 @@ public class SuperAdminController {
     CompanySummaryResponse response = superAdminService.updateCompany(id, request);
     return ResponseEntity.ok(response);
   }
+
+  /**
+   * 機能を複数の利用企業へ一括で有効化・無効化します。
+   * 対象企業は企業IDリスト、または企業ステータスで指定します。
+   *
+   * @param featureKey 機能キー
+   * @param request 一括展開リクエスト
+   * @return 対象企業数と作成・更新件数
+   */
+  @PostMapping("/features/{featureKey}/rollout")
+  public FeatureRolloutResult rolloutFeature(
+      @PathVariable String featureKey, @Valid @RequestBody FeatureRolloutRequest request) {
+    return featureToggleService.rollout(featureKey, request);
+  }
+
+  /**
+   * ダッシュボード定期再計算の直近の実行結果を取得します。
+   *
+   * @return 実行結果（未実行の場合は204）
+   */
+  @GetMapping("/dashboard-recompute")
+  public ResponseEntity<DashboardRecomputeStats> lastDashboardRecompute() {
+    DashboardRecomputeStats stats = dashboardRecomputeService.lastRun();
+    return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.noContent().build();
+  }
+
+  /**
+   * 認証済みプリンシパルキャッシュのヒット・ミス件数を取得します。
+   *
+   * @return キャッシュ統計
+   */
+  @GetMapping("/principal-cache")
+  public PrincipalCacheStats principalCacheStats() {
+    return principalCache.stats();
+  }
 }
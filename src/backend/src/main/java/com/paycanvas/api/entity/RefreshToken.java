@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.time.Instant;
 
 /**
@@ -47,13 +48,35 @@ public class RefreshToken {
   private UserAccount user;
 
   /**
-   * リフレッシュトークン文字列。
-   * クライアントがアクセストークン更新時に使用する一意のトークン値です。
+   * リフレッシュトークンのハッシュ値。
+   * トークン文字列のSHA-256ハッシュ（16進）です。平文のトークンはデータベースに保存しません。
    * セキュリティのため、データベース全体で一意である必要があります。
    */
-  @Column(nullable = false, unique = true)
+  @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+  private String tokenHash;
+
+  /**
+   * リフレッシュトークン文字列。
+   * クライアントに返却する平文のトークン値で、発行直後のみ保持します（永続化されません）。
+   */
+  @Transient
   private String token;
 
+  /**
+   * セッションファミリーID。
+   * ログインごとに採番され、ローテーションで発行したトークンに引き継がれます。
+   * 端末ごとのセッション管理と、再利用検知時のセッション単位の失効に使用します。
+   */
+  @Column(name = "family_id", nullable = false, length = 36)
+  private String familyId;
+
+  /**
+   * 使用日時。
+   * ローテーションで使用済みになった日時です。未使用の場合はnullです。
+   */
+  @Column(name = "used_at")
+  private Instant usedAt;
+
   /**
    * 有効期限。
    * リフレッシュトークンの有効期限を示すタイムスタンプです。
@@ -82,6 +105,14 @@ public class RefreshToken {
     this.user = user;
   }
 
+  public String getTokenHash() {
+    return tokenHash;
+  }
+
+  public void setTokenHash(String tokenHash) {
+    this.tokenHash = tokenHash;
+  }
+
   public String getToken() {
     return token;
   }
@@ -90,6 +121,22 @@ public class RefreshToken {
     this.token = token;
   }
 
+  public String getFamilyId() {
+    return familyId;
+  }
+
+  public void setFamilyId(String familyId) {
+    this.familyId = familyId;
+  }
+
+  public Instant getUsedAt() {
+    return usedAt;
+  }
+
+  public void setUsedAt(Instant usedAt) {
+    this.usedAt = usedAt;
+  }
+
   public Instant getExpiresAt() {
     return expiresAt;
   }
@@ -88,6 +88,14 @@ public class UserAccount {
   @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
   private Set<UserRole> roles = new HashSet<>();
 
+  /**
+   * トークンバージョン。
+   * ステータス・所属企業・ロールの変更時にデータベースのトリガーで加算されます。
+   * アクセストークンに含め、発行後に権限が変わったトークンの検知に使用します。
+   */
+  @Column(name = "token_version", nullable = false, insertable = false, updatable = false)
+  private int tokenVersion;
+
   public Integer getId() {
     return id;
   }
@@ -132,6 +140,10 @@ public class UserAccount {
     this.status = status;
   }
 
+  public int getTokenVersion() {
+    return tokenVersion;
+  }
+
   public Set<UserRole> getRoles() {
     return roles;
   }
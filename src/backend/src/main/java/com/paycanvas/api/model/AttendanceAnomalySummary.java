@@ -0,0 +1,12 @@
+package com.paycanvas.api.model;
+
+import java.util.Map;
+
+/**
+ * 企業・月別の勤怠異常件数モデル。
+ *
+ * @param month 対象月（yyyy-MM）
+ * @param counts 異常区分コードごとの件数
+ * @param total 件数の合計（1行が複数区分に該当する場合は重複して数える）
+ */
+public record AttendanceAnomalySummary(String month, Map<String, Integer> counts, int total) {}
@@ -0,0 +1,23 @@
+package com.paycanvas.api.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 勤怠の一括承認・差戻しリクエストモデル。
+ *
+ * <p>対象はIDリスト、または店舗・期間・従業員IDの条件で指定します。
+ * {@code asOf}を指定すると、その時刻より後に更新された行は対象外（競合）として扱います。</p>
+ */
+public record AttendanceBulkStatusRequest(
+    @NotBlank @Pattern(regexp = "APPROVE|REJECT", message = "actionはAPPROVEまたはREJECTです") String action,
+    @Size(max = 10000, message = "一度に指定できるIDは10000件までです") List<Integer> ids,
+    Integer storeId,
+    LocalDate from,
+    LocalDate to,
+    @Size(max = 10000, message = "一度に指定できる従業員IDは10000件までです") List<Integer> employeeIds,
+    LocalDateTime asOf) {}
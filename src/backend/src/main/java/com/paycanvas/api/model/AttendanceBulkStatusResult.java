@@ -0,0 +1,13 @@
+package com.paycanvas.api.model;
+
+/**
+ * 勤怠の一括承認・差戻し結果モデル。
+ *
+ * @param status 更新後のステータス
+ * @param updatedCount 更新した件数
+ * @param conflictCount asOf以降に他で更新されていたため対象外とした件数
+ * @param pendingDelta 未承認件数の増減
+ * @param pendingCount 更新後の未承認件数
+ */
+public record AttendanceBulkStatusResult(
+    String status, int updatedCount, int conflictCount, long pendingDelta, long pendingCount) {}
@@ -0,0 +1,14 @@
+package com.paycanvas.api.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 勤怠の一括取込リクエストモデル。
+ */
+public record AttendanceImportRequest(
+    @NotEmpty(message = "取込対象の勤怠を指定してください")
+        @Size(max = 10000, message = "一度に取り込める勤怠は10000件までです")
+        List<@Valid AttendanceImportRow> rows) {}
@@ -0,0 +1,35 @@
+package com.paycanvas.api.model;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * 勤怠の取込・編集1行分のリクエストモデル。
+ *
+ * <p>退勤時刻が出勤時刻以前の場合は翌日の退勤とみなします。勤怠区分を省略した場合はWORKです。</p>
+ */
+public record AttendanceImportRow(
+    @NotNull(message = "従業員IDは必須です") Integer employeeId,
+    @NotNull(message = "店舗IDは必須です") Integer storeId,
+    @NotNull(message = "勤務日は必須です") LocalDate workDate,
+    LocalTime checkIn,
+    LocalTime checkOut,
+    @Min(0) Integer workHours,
+    @Min(0) Integer tardyMinutes,
+    @Pattern(
+            regexp = "WORK|PAID_LEAVE|PAID_LEAVE_HALF",
+            message = "勤怠区分はWORK、PAID_LEAVE、PAID_LEAVE_HALFのいずれかです")
+        String attendanceType) {
+
+  /**
+   * 勤怠区分を返します（未指定の場合はWORK）。
+   *
+   * @return 勤怠区分
+   */
+  public String attendanceTypeOrDefault() {
+    return attendanceType != null ? attendanceType : "WORK";
+  }
+}
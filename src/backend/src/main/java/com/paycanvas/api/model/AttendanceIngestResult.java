@@ -0,0 +1,12 @@
+package com.paycanvas.api.model;
+
+/**
+ * 勤怠の取込・編集結果モデル。
+ *
+ * @param insertedCount 登録した件数
+ * @param updatedCount 更新した件数（ルール再評価でフラグが変わった既存行を含む）
+ * @param flaggedCount 登録・更新後に異常フラグを持つ件数
+ * @param pendingCount 更新後の未承認件数
+ */
+public record AttendanceIngestResult(
+    int insertedCount, int updatedCount, int flaggedCount, long pendingCount) {}
@@ -0,0 +1,16 @@
+package com.paycanvas.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 初期表示データの1部分のモデル。
+ *
+ * <p>クライアントが保持しているETagと一致した場合は{@code notModified}をtrueとし、
+ * データ本体は省略します。</p>
+ *
+ * @param etag 部分データのETag
+ * @param notModified クライアントの保持データから変更がない場合true
+ * @param data 部分データ（変更がない場合はnull）
+ */
+public record BootstrapPart(
+    String etag, boolean notModified, @JsonInclude(JsonInclude.Include.NON_NULL) Object data) {}
@@ -0,0 +1,12 @@
+package com.paycanvas.api.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 初期表示データ（ダッシュボード・マスタ・利用可能機能）の一括取得レスポンスモデル。
+ *
+ * @param parts 部分名ごとのデータ
+ * @param unavailable 期限内に取得できなかった部分名
+ */
+public record BootstrapResponse(Map<String, BootstrapPart> parts, List<String> unavailable) {}
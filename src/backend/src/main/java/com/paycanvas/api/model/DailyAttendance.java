@@ -4,9 +4,11 @@ public record DailyAttendance(
     String id,
     String date,
     String staffName,
+    Integer storeId,
     String storeName,
     String checkIn,
     String checkOut,
     int workHours,
     int tardyMinutes,
-    String status) {}
+    String status,
+    int anomalyFlags) {}
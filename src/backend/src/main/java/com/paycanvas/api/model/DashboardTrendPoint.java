@@ -0,0 +1,15 @@
+package com.paycanvas.api.model;
+
+import java.math.BigDecimal;
+
+/**
+ * ダッシュボード推移グラフの1か月分のデータモデル。
+ *
+ * @param month 対象月（yyyy-MM）
+ * @param laborCost 総人件費
+ * @param totalSales 総売上
+ * @param productRatio 商品販売率（%）
+ * @param pendingAttendance 勤怠未承認件数
+ */
+public record DashboardTrendPoint(
+    String month, long laborCost, long totalSales, BigDecimal productRatio, long pendingAttendance) {}
@@ -1,3 +1,3 @@
 package com.paycanvas.api.model;
 
-public record StoreMetric(String id, String date, String storeName, int sales, int discount, int totalHours) {}
+public record StoreMetric(String id, String date, Integer storeId, String storeName, int sales, int discount, int totalHours) {}
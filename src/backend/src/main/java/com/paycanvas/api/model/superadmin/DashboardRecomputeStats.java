@@ -0,0 +1,23 @@
+package com.paycanvas.api.model.superadmin;
+
+import java.time.LocalDateTime;
+
+/**
+ * ダッシュボード定期再計算の実行結果。
+ *
+ * @param startedAt 開始日時
+ * @param durationMillis 所要時間（ミリ秒）
+ * @param changedTenants 元データが変更されていた企業数
+ * @param recomputedTenants 再計算を完了した企業数
+ * @param recomputedMonths 再計算した企業・月の数
+ * @param overBudgetTenants 時間予算を超過し、残りの月を次回に持ち越した企業数
+ * @param failedTenants 再計算に失敗した企業数
+ */
+public record DashboardRecomputeStats(
+    LocalDateTime startedAt,
+    long durationMillis,
+    int changedTenants,
+    int recomputedTenants,
+    int recomputedMonths,
+    int overBudgetTenants,
+    int failedTenants) {}
@@ -0,0 +1,20 @@
+package com.paycanvas.api.model.superadmin;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 機能の一括展開リクエストモデル。
+ *
+ * <p>対象企業は企業IDリスト、または企業ステータスで指定します。両方を指定した場合は両方に一致する
+ * 企業が対象です。</p>
+ *
+ * @param enabled 有効にする場合true、無効にする場合false
+ * @param companyIds 対象の企業IDリスト
+ * @param companyStatus 対象の企業ステータス（例: ACTIVE）
+ */
+public record FeatureRolloutRequest(
+    @NotNull Boolean enabled,
+    @Size(max = 10000, message = "一度に指定できる企業IDは10000件までです") List<Integer> companyIds,
+    String companyStatus) {}
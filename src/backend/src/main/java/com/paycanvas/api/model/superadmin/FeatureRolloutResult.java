@@ -0,0 +1,19 @@
+package com.paycanvas.api.model.superadmin;
+
+/**
+ * 機能の一括展開結果モデル。
+ *
+ * @param featureKey 機能キー
+ * @param enabled 設定した有効状態
+ * @param matchedCount 条件に一致した企業数
+ * @param insertedCount 設定を新規作成した企業数
+ * @param updatedCount 有効状態を切り替えた企業数
+ * @param unchangedCount 既に同じ状態だったため変更しなかった企業数
+ */
+public record FeatureRolloutResult(
+    String featureKey,
+    boolean enabled,
+    int matchedCount,
+    int insertedCount,
+    int updatedCount,
+    int unchangedCount) {}
@@ -0,0 +1,12 @@
+package com.paycanvas.api.model.superadmin;
+
+/**
+ * 認証済みプリンシパルキャッシュの統計情報。
+ *
+ * @param size 現在のエントリ数
+ * @param hits キャッシュヒット数（起動後の累計）
+ * @param misses キャッシュミス数（起動後の累計）
+ * @param rejected ミス時にステータス・トークンバージョン不一致で認証しなかった件数
+ * @param hitRatio ヒット率（0〜1）
+ */
+public record PrincipalCacheStats(long size, long hits, long misses, long rejected, double hitRatio) {}
@@ -4,11 +4,39 @@ import com.paycanvas.api.entity.RefreshToken;
 import java.time.Instant;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
-  Optional<RefreshToken> findByToken(String token);
+  Optional<RefreshToken> findByTokenHash(String tokenHash);
 
-  void deleteByUser_Id(Integer userId);
+  // エンティティを読み込まず1文で削除する
+  @Modifying
+  @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId")
+  int deleteAllByUserId(@Param("userId") Integer userId);
 
-  void deleteByExpiresAtBefore(Instant instant);
+  @Modifying
+  @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+  int deleteAllByFamilyId(@Param("familyId") String familyId);
+
+  // 未使用の場合のみ使用済みにする。同時に複数の更新要求が来ても成功するのは1件のみ
+  @Modifying
+  @Query("UPDATE RefreshToken t SET t.usedAt = :now WHERE t.id = :id AND t.usedAt IS NULL")
+  int markUsed(@Param("id") Integer id, @Param("now") Instant now);
+
+  @Query("SELECT t.usedAt FROM RefreshToken t WHERE t.id = :id")
+  Optional<Instant> findUsedAt(@Param("id") Integer id);
+
+  // 期限切れ行を指定件数ずつ削除する（1回のロック範囲・WAL量を抑えるため）
+  @Transactional
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM refresh_tokens WHERE id IN ("
+              + "SELECT id FROM refresh_tokens WHERE expires_at < :now "
+              + "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED)",
+      nativeQuery = true)
+  int deleteExpiredChunk(@Param("now") Instant now, @Param("limit") int limit);
 }
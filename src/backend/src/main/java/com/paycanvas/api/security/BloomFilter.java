@@ -0,0 +1,83 @@
+package com.paycanvas.api.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 文字列キー用のブルームフィルタです。
+ *
+ * <p>{@link #mightContain(String)}がfalseの場合、そのキーは確実に未登録です。
+ * trueの場合は偽陽性の可能性があるため、呼び出し側で正確な集合を確認してください。
+ * 追加と参照は複数スレッドから同時に行えます。</p>
+ */
+public final class BloomFilter {
+  private final AtomicLongArray words;
+  private final int bitCount;
+  private final int hashCount;
+
+  /**
+   * 想定件数と偽陽性率からビット数・ハッシュ関数数を決めてフィルタを作成します。
+   *
+   * @param expectedInsertions 想定登録件数
+   * @param falsePositiveRate 許容する偽陽性率（0〜1）
+   */
+  public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+    int n = Math.max(1, expectedInsertions);
+    long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    this.bitCount = (int) Math.max(64, Math.min(bits, Integer.MAX_VALUE - 63));
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+  }
+
+  /**
+   * キーを登録します。
+   *
+   * @param key キー
+   */
+  public void put(String key) {
+    long hash = hash64(key);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < hashCount; i++) {
+      int bit = index(h1 + i * h2);
+      long mask = 1L << bit;
+      int word = bit >>> 6;
+      words.getAndAccumulate(word, mask, (current, m) -> current | m);
+    }
+  }
+
+  /**
+   * キーが登録されている可能性があるかを判定します。
+   *
+   * @param key キー
+   * @return 登録されている可能性がある場合true（未登録であることが確実な場合false）
+   */
+  public boolean mightContain(String key) {
+    long hash = hash64(key);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < hashCount; i++) {
+      int bit = index(h1 + i * h2);
+      if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int index(int combined) {
+    return (combined & Integer.MAX_VALUE) % bitCount;
+  }
+
+  // FNV-1a（64bit）に最終ミキシングを加えたハッシュ
+  private static long hash64(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash ^= key.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,76 @@
+package com.paycanvas.api.security;
+
+import com.paycanvas.api.service.CompanyFeatureRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * {@link RequiresFeature}が付与されたハンドラーの実行前に、所属企業で機能が有効かを判定します。
+ *
+ * <p>アノテーションの解決結果はハンドラーメソッド単位で保持し、判定は
+ * {@link CompanyFeatureRegistry}のメモリ上のビット列のみで行います。</p>
+ */
+@Component
+public class FeatureGuardInterceptor implements HandlerInterceptor {
+  private static final String ROLE_SUPER_ADMIN = "SUPER_ADMIN";
+  private static final String NO_FEATURE = "";
+
+  private final CompanyFeatureRegistry companyFeatureRegistry;
+  private final Map<Method, String> requiredFeatures = new ConcurrentHashMap<>();
+
+  /**
+   * FeatureGuardInterceptorのコンストラクタです。
+   *
+   * @param companyFeatureRegistry 企業別の有効機能
+   */
+  public FeatureGuardInterceptor(CompanyFeatureRegistry companyFeatureRegistry) {
+    this.companyFeatureRegistry = companyFeatureRegistry;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!(handler instanceof HandlerMethod handlerMethod)) {
+      return true;
+    }
+    String featureKey =
+        requiredFeatures.computeIfAbsent(
+            handlerMethod.getMethod(), method -> resolve(handlerMethod));
+    if (NO_FEATURE.equals(featureKey)) {
+      return true;
+    }
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null
+        || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+    }
+    if (ROLE_SUPER_ADMIN.equals(principal.getRoleKey())
+        || companyFeatureRegistry.isEnabled(principal.getCompanyId(), featureKey)) {
+      return true;
+    }
+    throw new ResponseStatusException(HttpStatus.FORBIDDEN, "この機能は利用できません: " + featureKey);
+  }
+
+  private static String resolve(HandlerMethod handlerMethod) {
+    RequiresFeature annotation =
+        AnnotatedElementUtils.findMergedAnnotation(
+            handlerMethod.getMethod(), RequiresFeature.class);
+    if (annotation == null) {
+      annotation =
+          AnnotatedElementUtils.findMergedAnnotation(
+              handlerMethod.getBeanType(), RequiresFeature.class);
+    }
+    return annotation != null ? annotation.value() : NO_FEATURE;
+  }
+}
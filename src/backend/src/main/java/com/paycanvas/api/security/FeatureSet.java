@@ -0,0 +1,146 @@
+package com.paycanvas.api.security;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * 機能ID（m_features.id）の不変集合です。
+ *
+ * <p>ビット列で保持し、{@link #contains(int)}は定数時間で判定します。アクセストークンには
+ * {@code "<形式バージョン>.<ビット列のBase64URL>"}の文字列として格納します（例: {@code "1.Dw"}）。
+ * 形式バージョンが異なるクレームは空集合として扱います。</p>
+ */
+public final class FeatureSet {
+  /** クレームの形式バージョン */
+  public static final String FORMAT_VERSION = "1";
+
+  private static final FeatureSet EMPTY = new FeatureSet(new long[0]);
+
+  private final long[] words;
+
+  private FeatureSet(long[] words) {
+    this.words = words;
+  }
+
+  /**
+   * 空集合を返します。
+   *
+   * @return 空集合
+   */
+  public static FeatureSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * 機能IDの集合を作成します。
+   *
+   * @param featureIds 機能ID（1以上）
+   * @return 機能IDの集合
+   */
+  public static FeatureSet of(Collection<Integer> featureIds) {
+    int max = featureIds.stream().mapToInt(Integer::intValue).max().orElse(-1);
+    if (max < 0) {
+      return EMPTY;
+    }
+    long[] words = new long[(max >>> 6) + 1];
+    for (int id : featureIds) {
+      if (id >= 0) {
+        words[id >>> 6] |= 1L << id;
+      }
+    }
+    return new FeatureSet(words);
+  }
+
+  /**
+   * アクセストークンのクレーム文字列から集合を復元します。
+   *
+   * @param claim クレーム文字列（nullの場合は空集合）
+   * @return 機能IDの集合
+   */
+  public static FeatureSet decode(String claim) {
+    if (claim == null) {
+      return EMPTY;
+    }
+    int separator = claim.indexOf('.');
+    if (separator < 0 || !FORMAT_VERSION.equals(claim.substring(0, separator))) {
+      return EMPTY;
+    }
+    byte[] bytes = Base64.getUrlDecoder().decode(claim.substring(separator + 1));
+    long[] words = new long[(bytes.length + 7) >>> 3];
+    for (int i = 0; i < bytes.length; i++) {
+      words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+    }
+    return new FeatureSet(words);
+  }
+
+  /**
+   * アクセストークンのクレーム文字列へ変換します。末尾の0バイトは省略します。
+   *
+   * @return クレーム文字列
+   */
+  public String encode() {
+    byte[] bytes = new byte[words.length << 3];
+    int length = 0;
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+      if (bytes[i] != 0) {
+        length = i + 1;
+      }
+    }
+    return FORMAT_VERSION
+        + "."
+        + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(bytes, length));
+  }
+
+  /**
+   * 機能IDが含まれるかを判定します。
+   *
+   * @param featureId 機能ID
+   * @return 含まれる場合true
+   */
+  public boolean contains(int featureId) {
+    int word = featureId >>> 6;
+    return featureId >= 0 && word < words.length && (words[word] & (1L << featureId)) != 0;
+  }
+
+  /**
+   * 含まれる機能IDの数を返します。
+   *
+   * @return 機能IDの数
+   */
+  public int size() {
+    int count = 0;
+    for (long word : words) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof FeatureSet that)) {
+      return false;
+    }
+    for (int i = 0; i < Math.max(words.length, that.words.length); i++) {
+      long mine = i < words.length ? words[i] : 0;
+      long theirs = i < that.words.length ? that.words[i] : 0;
+      if (mine != theirs) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int length = words.length;
+    while (length > 0 && words[length - 1] == 0) {
+      length--;
+    }
+    return Arrays.hashCode(Arrays.copyOf(words, length));
+  }
+}
@@ -1,14 +1,13 @@
 package com.paycanvas.api.security;
 
-import com.paycanvas.api.repository.UserRepository;
 import com.paycanvas.api.service.JwtService;
+import com.paycanvas.api.service.TokenRevocationService;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,11 +19,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
   private final JwtService jwtService;
-  private final UserRepository userRepository;
+  private final PrincipalCache principalCache;
+  private final TokenRevocationService tokenRevocationService;
 
-  public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository) {
+  public JwtAuthenticationFilter(
+      JwtService jwtService,
+      PrincipalCache principalCache,
+      TokenRevocationService tokenRevocationService) {
     this.jwtService = jwtService;
-    this.userRepository = userRepository;
+    this.principalCache = principalCache;
+    this.tokenRevocationService = tokenRevocationService;
   }
 
   @Override
@@ -41,12 +45,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     try {
       Claims claims = jwtService.parseToken(token);
       Integer userId = Integer.valueOf(claims.getSubject());
-      if (SecurityContextHolder.getContext().getAuthentication() == null) {
-        var userOpt = userRepository.findById(userId);
-        if (userOpt.isPresent()) {
-          var user = userOpt.get();
-          String role = (String) claims.get("role");
-          UserPrincipal principal = new UserPrincipal(user, role);
+      if (SecurityContextHolder.getContext().getAuthentication() == null
+          && !tokenRevocationService.isRevoked(claims.getId(), userId, claims.getIssuedAt())) {
+        String role = (String) claims.get("role");
+        // バージョン導入前に発行されたトークンは初期値0として扱う
+        Number version = claims.get("ver", Number.class);
+        var principalOpt =
+            principalCache.get(userId, version != null ? version.intValue() : 0, role);
+        if (principalOpt.isPresent()) {
+          // 利用可能機能はトークンごとに異なり得るため、キャッシュ外でリクエスト単位に付与する
+          // （クレームは参照されたときに復号する）
+          UserPrincipal principal =
+              principalOpt.get().withFeatures(jwtService.extractFeaturesClaim(claims));
           UsernamePasswordAuthenticationToken authentication =
               new UsernamePasswordAuthenticationToken(
                   principal, null, principal.getAuthorities());
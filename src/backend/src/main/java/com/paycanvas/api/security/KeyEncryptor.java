@@ -0,0 +1,101 @@
+package com.paycanvas.api.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 鍵データを鍵暗号化鍵（KEK）でAES-GCM暗号化・復号します。
+ *
+ * <p>暗号文は{@code "v1:" + Base64(IV(12バイト) || 暗号文 || 認証タグ)}の形式です。
+ * 付加データ（鍵IDなど）を認証対象に含め、別の行への暗号文の付け替えを検出します。</p>
+ */
+public final class KeyEncryptor {
+  private static final String PREFIX = "v1:";
+  private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+  private static final int IV_LENGTH = 12;
+  private static final int TAG_BITS = 128;
+
+  private final SecretKey key;
+  private final SecureRandom random = new SecureRandom();
+
+  /**
+   * KeyEncryptorのコンストラクタです。
+   *
+   * @param keyBytes 鍵暗号化鍵（16・24・32バイト）
+   */
+  public KeyEncryptor(byte[] keyBytes) {
+    if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+      throw new IllegalArgumentException("鍵暗号化鍵の長さが不正です: " + keyBytes.length);
+    }
+    this.key = new SecretKeySpec(keyBytes, "AES");
+  }
+
+  /**
+   * 暗号化済みの形式かを判定します。
+   *
+   * @param value 保存値
+   * @return 暗号化済みの場合true
+   */
+  public static boolean isEncrypted(String value) {
+    return value != null && value.startsWith(PREFIX);
+  }
+
+  /**
+   * 鍵データを暗号化します。
+   *
+   * @param plaintext 鍵データ
+   * @param associatedData 認証対象の付加データ
+   * @return 暗号文
+   */
+  public String encrypt(byte[] plaintext, String associatedData) {
+    byte[] iv = new byte[IV_LENGTH];
+    random.nextBytes(iv);
+    try {
+      Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+      cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+      cipher.updateAAD(associatedData.getBytes(StandardCharsets.UTF_8));
+      byte[] encrypted = cipher.doFinal(plaintext);
+      byte[] output = Arrays.copyOf(iv, IV_LENGTH + encrypted.length);
+      System.arraycopy(encrypted, 0, output, IV_LENGTH, encrypted.length);
+      return PREFIX + Base64.getEncoder().encodeToString(output);
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("鍵データの暗号化に失敗しました", ex);
+    }
+  }
+
+  /**
+   * 暗号文を復号します。
+   *
+   * @param value 暗号文
+   * @param associatedData 暗号化時と同じ付加データ
+   * @return 鍵データ
+   * @throws IllegalStateException 形式が不正、鍵暗号化鍵が異なる、または改ざんされている場合
+   */
+  public byte[] decrypt(String value, String associatedData) {
+    if (!isEncrypted(value)) {
+      throw new IllegalStateException("暗号化されていない鍵データです");
+    }
+    byte[] input = Base64.getDecoder().decode(value.substring(PREFIX.length()));
+    if (input.length <= IV_LENGTH) {
+      throw new IllegalStateException("鍵データの形式が不正です");
+    }
+    try {
+      Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+      cipher.init(
+          Cipher.DECRYPT_MODE,
+          key,
+          new GCMParameterSpec(TAG_BITS, Arrays.copyOfRange(input, 0, IV_LENGTH)));
+      cipher.updateAAD(associatedData.getBytes(StandardCharsets.UTF_8));
+      return cipher.doFinal(input, IV_LENGTH, input.length - IV_LENGTH);
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("鍵データの復号に失敗しました", ex);
+    }
+  }
+}
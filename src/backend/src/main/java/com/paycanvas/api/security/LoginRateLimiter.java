@@ -0,0 +1,175 @@
+package com.paycanvas.api.security;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * ログイン試行回数をメールアドレス・接続元IPごとに制限するコンポーネントです。
+ *
+ * <p>パスワード照合（BCrypt）はCPU負荷が高いため、リスト型攻撃などの集中的な試行で
+ * 給与計算ジョブ等が処理できなくなることを防ぎます。上限を超えた試行はDB問い合わせや
+ * パスワード照合の前に429で拒否します。</p>
+ *
+ * <p>各ノードではメモリ上のトークンバケットで判定し、満杯に戻ったバケットは定期的に破棄します。
+ * 使用中のバケットで保持数の上限に達した場合は、既存の制限を維持したまま新しいキーの試行を拒否します。
+ * {@code security.login-rate.cluster-enabled}を有効にすると、ノード共通の時間枠ごとの試行回数を
+ * t_login_attempts で加算して判定します。</p>
+ */
+@Component
+public class LoginRateLimiter {
+  private static final Logger log = LoggerFactory.getLogger(LoginRateLimiter.class);
+  /** 保持数の上限に達した際に満杯のバケットを破棄する最短間隔 */
+  private static final long FULL_PURGE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final String LIMITED_MESSAGE = "ログイン試行回数の上限を超えました。しばらくしてから再度お試しください";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Limit emailLimit;
+  private final Limit ipLimit;
+  private final int maxEntries;
+  private final boolean clusterEnabled;
+  private final long clusterWindowSeconds;
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private final AtomicLong lastFullPurgeAt = new AtomicLong(System.nanoTime());
+
+  /**
+   * LoginRateLimiterのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param emailCapacity メールアドレスごとの連続試行回数
+   * @param emailRefillSeconds メールアドレスごとに1回分が回復する秒数
+   * @param ipCapacity 接続元IPごとの連続試行回数
+   * @param ipRefillSeconds 接続元IPごとに1回分が回復する秒数
+   * @param maxEntries メモリに保持するバケット数の上限
+   * @param clusterEnabled ノード共通の試行回数制限を行う場合true
+   * @param clusterWindowSeconds ノード共通の時間枠（秒）
+   */
+  public LoginRateLimiter(
+      JdbcTemplate jdbcTemplate,
+      @Value("${security.login-rate.email-capacity:5}") int emailCapacity,
+      @Value("${security.login-rate.email-refill-seconds:60}") long emailRefillSeconds,
+      @Value("${security.login-rate.ip-capacity:20}") int ipCapacity,
+      @Value("${security.login-rate.ip-refill-seconds:3}") long ipRefillSeconds,
+      @Value("${security.login-rate.max-entries:100000}") int maxEntries,
+      @Value("${security.login-rate.cluster-enabled:false}") boolean clusterEnabled,
+      @Value("${security.login-rate.cluster-window-seconds:300}") long clusterWindowSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.emailLimit = new Limit(emailCapacity, Duration.ofSeconds(emailRefillSeconds));
+    this.ipLimit = new Limit(ipCapacity, Duration.ofSeconds(ipRefillSeconds));
+    this.maxEntries = maxEntries;
+    this.clusterEnabled = clusterEnabled;
+    this.clusterWindowSeconds = clusterWindowSeconds;
+  }
+
+  /**
+   * ログイン試行を1回分記録し、上限を超えている場合は拒否します。
+   *
+   * @param email ログインに使用されたメールアドレス
+   * @param clientIp 接続元IPアドレス
+   * @throws ResponseStatusException 上限を超えている場合（429）
+   */
+  public void acquire(String email, String clientIp) {
+    String emailKey = "email:" + (email != null ? email.trim().toLowerCase(Locale.ROOT) : "");
+    String ipKey = "ip:" + clientIp;
+    long now = System.nanoTime();
+    // IPを先に判定し、1つのIPから多数のメールアドレスを試す場合にメールアドレス側のバケットを増やさない
+    TokenBucket ipBucket = bucket(ipKey, ipLimit, now);
+    if (ipBucket == null || !ipBucket.tryAcquire(now)) {
+      reject(emailKey, ipKey);
+    }
+    TokenBucket emailBucket = bucket(emailKey, emailLimit, now);
+    if (emailBucket == null || !emailBucket.tryAcquire(now)) {
+      reject(emailKey, ipKey);
+    }
+    if (clusterEnabled
+        && (incrementCluster(ipKey) > ipLimit.perWindow(clusterWindowSeconds)
+            || incrementCluster(emailKey) > emailLimit.perWindow(clusterWindowSeconds))) {
+      reject(emailKey, ipKey);
+    }
+  }
+
+  /**
+   * 満杯に戻ったバケットと、終了したノード共通の時間枠を削除します。
+   */
+  @Scheduled(fixedDelayString = "${security.login-rate.sweep-millis:60000}")
+  public void sweep() {
+    long now = System.nanoTime();
+    buckets.values().removeIf(bucket -> bucket.isFull(now));
+    if (clusterEnabled) {
+      jdbcTemplate.update(
+          "DELETE FROM t_login_attempts WHERE window_start < ?",
+          Timestamp.from(windowStart().minusSeconds(clusterWindowSeconds)));
+    }
+  }
+
+  // 保持数の上限に達している場合はnull（新しいキーは拒否し、既存の制限は破棄しない）
+  private TokenBucket bucket(String key, Limit limit, long now) {
+    TokenBucket bucket = buckets.get(key);
+    if (bucket != null) {
+      return bucket;
+    }
+    if (buckets.size() >= maxEntries) {
+      long lastPurge = lastFullPurgeAt.get();
+      if (now - lastPurge >= FULL_PURGE_INTERVAL_NANOS
+          && lastFullPurgeAt.compareAndSet(lastPurge, now)) {
+        // 全件走査のため、上限到達中も実行は一定間隔に抑える
+        buckets.values().removeIf(existing -> existing.isFull(now));
+        if (buckets.size() >= maxEntries) {
+          log.warn("ログイン試行制限のバケット数が上限（{}件）に達したため、新しい試行を拒否しています", maxEntries);
+        }
+      }
+      if (buckets.size() >= maxEntries) {
+        return null;
+      }
+    }
+    return buckets.computeIfAbsent(
+        key, ignored -> new TokenBucket(limit.capacity(), limit.refill().toNanos(), now));
+  }
+
+  private long incrementCluster(String key) {
+    Long attempts =
+        jdbcTemplate.queryForObject(
+            """
+            INSERT INTO t_login_attempts (limit_key, window_start, attempts)
+            VALUES (?, ?, 1)
+            ON CONFLICT (limit_key, window_start)
+            DO UPDATE SET attempts = t_login_attempts.attempts + 1
+            RETURNING attempts
+            """,
+            Long.class,
+            key,
+            Timestamp.from(windowStart()));
+    return attempts != null ? attempts : 0;
+  }
+
+  private Instant windowStart() {
+    long epochSecond = Instant.now().getEpochSecond();
+    return Instant.ofEpochSecond(epochSecond - epochSecond % clusterWindowSeconds);
+  }
+
+  private void reject(String emailKey, String ipKey) {
+    // 攻撃時は大量に発生するためDEBUGで出力する
+    log.debug("ログイン試行回数の上限を超えたため拒否しました（{}, {}）", emailKey, ipKey);
+    throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, LIMITED_MESSAGE);
+  }
+
+  private record Limit(int capacity, Duration refill) {
+    // 時間枠内の上限 = 連続試行回数 + 時間枠内の回復回数
+    long perWindow(long windowSeconds) {
+      return capacity + windowSeconds / Math.max(1, refill.toSeconds());
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.paycanvas.api.security;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * パスワード照合を上限付きの専用スレッドプールで実行するコンポーネントです。
+ *
+ * <p>照合待ちが上限を超えた場合や期限内に完了しない場合は503を返し、ログイン集中時に
+ * 応答時間が際限なく伸びることを防ぎます。</p>
+ */
+@Component
+public class PasswordVerifier {
+  private static final String BUSY_MESSAGE = "ログインが混み合っています。しばらくしてから再度お試しください";
+
+  private final PasswordEncoder passwordEncoder;
+  private final ExecutorService passwordHashExecutor;
+  private final long timeoutMillis;
+
+  /**
+   * PasswordVerifierのコンストラクタです。
+   *
+   * @param passwordEncoder パスワードエンコーダー
+   * @param passwordHashExecutor パスワード照合用のスレッドプール
+   * @param timeoutMillis 照合の待ち時間の上限（ミリ秒）
+   */
+  public PasswordVerifier(
+      PasswordEncoder passwordEncoder,
+      @Qualifier("passwordHashExecutor") ExecutorService passwordHashExecutor,
+      @Value("${security.password.hash-timeout-millis:2000}") long timeoutMillis) {
+    this.passwordEncoder = passwordEncoder;
+    this.passwordHashExecutor = passwordHashExecutor;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * 平文パスワードとハッシュを照合します。
+   *
+   * @param rawPassword 平文パスワード
+   * @param passwordHash パスワードハッシュ
+   * @return 一致する場合true
+   * @throws ResponseStatusException 照合待ちが上限を超えた、または期限内に完了しない場合（503）
+   */
+  public boolean matches(String rawPassword, String passwordHash) {
+    Future<Boolean> future;
+    try {
+      future = passwordHashExecutor.submit(() -> passwordEncoder.matches(rawPassword, passwordHash));
+    } catch (RejectedExecutionException ex) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE);
+    }
+    try {
+      return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("パスワードの照合に失敗しました", ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE);
+    }
+  }
+}
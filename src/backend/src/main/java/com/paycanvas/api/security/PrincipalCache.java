@@ -0,0 +1,136 @@
+package com.paycanvas.api.security;
+
+import com.paycanvas.api.entity.UserAccount;
+import com.paycanvas.api.model.superadmin.PrincipalCacheStats;
+import com.paycanvas.api.repository.UserRepository;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 認証済みの{@link UserPrincipal}をメモリに保持するキャッシュです。
+ *
+ * <p>エントリはユーザーID単位で、アクセストークン発行時のトークンバージョンと共に保持します。
+ * ステータス・所属企業・ロールが変わるとデータベース側でトークンバージョンが加算されるため、
+ * キャッシュ未ヒット時にトークンのバージョンと一致しないユーザーは認証しません。
+ * 権限はトークンの役割から付与するため、キャッシュ済みの役割がトークンと異なる場合は再読込します。
+ * 変更前に発行されたトークンのキャッシュ済みエントリは、TTL経過後の再読込で無効になります。</p>
+ */
+@Component
+public class PrincipalCache {
+  private static final String STATUS_ACTIVE = "ACTIVE";
+  private static final long EVICT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final UserRepository userRepository;
+  private final long ttlNanos;
+  private final int maxEntries;
+  private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final AtomicLong lastEvictAt = new AtomicLong(System.nanoTime());
+
+  /**
+   * PrincipalCacheのコンストラクタです。
+   *
+   * @param userRepository ユーザー情報のリポジトリ
+   * @param ttlSeconds キャッシュの有効期間（秒）
+   * @param maxEntries 最大エントリ数
+   */
+  public PrincipalCache(
+      UserRepository userRepository,
+      @Value("${paycanvas.cache.principal-ttl-seconds:60}") long ttlSeconds,
+      @Value("${paycanvas.cache.principal-max-entries:10000}") int maxEntries) {
+    this.userRepository = userRepository;
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * アクセストークンのユーザーID・トークンバージョン・役割に対応するプリンシパルを取得します。
+   *
+   * @param userId ユーザーID
+   * @param tokenVersion トークンに含まれるトークンバージョン
+   * @param roleKey トークンに含まれる役割キー
+   * @return プリンシパル（ユーザーが存在しない・無効・バージョン不一致の場合は空）
+   */
+  public Optional<UserPrincipal> get(Integer userId, int tokenVersion, String roleKey) {
+    long now = System.nanoTime();
+    Entry entry = entries.get(userId);
+    if (entry != null
+        && entry.tokenVersion() == tokenVersion
+        && Objects.equals(entry.principal().getRoleKey(), roleKey)
+        && now - entry.loadedAt() <= ttlNanos) {
+      hits.increment();
+      return Optional.of(entry.principal());
+    }
+    misses.increment();
+    Optional<UserAccount> user = userRepository.findById(userId);
+    if (user.isEmpty()
+        || !STATUS_ACTIVE.equals(user.get().getStatus())
+        || user.get().getTokenVersion() != tokenVersion) {
+      rejected.increment();
+      return Optional.empty();
+    }
+    UserPrincipal principal = new UserPrincipal(user.get(), roleKey);
+    if (entries.containsKey(userId) || hasRoom(now)) {
+      entries.put(userId, new Entry(principal, tokenVersion, now));
+    }
+    return Optional.of(principal);
+  }
+
+  /**
+   * 指定ユーザーのキャッシュを破棄します。
+   *
+   * @param userId ユーザーID
+   */
+  public void invalidate(Integer userId) {
+    entries.remove(userId);
+  }
+
+  /**
+   * 全ユーザーのキャッシュを破棄します。
+   */
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  /**
+   * キャッシュの統計情報を返します。
+   *
+   * @return 統計情報
+   */
+  public PrincipalCacheStats stats() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long total = hitCount + missCount;
+    return new PrincipalCacheStats(
+        entries.size(),
+        hitCount,
+        missCount,
+        rejected.sum(),
+        total == 0 ? 0 : (double) hitCount / total);
+  }
+
+  // 上限到達時は期限切れのみ削除し、有効なエントリで埋まっている間は新しいユーザーを保持しない
+  private boolean hasRoom(long now) {
+    if (entries.size() < maxEntries) {
+      return true;
+    }
+    long lastEvict = lastEvictAt.get();
+    if (now - lastEvict >= EVICT_INTERVAL_NANOS && lastEvictAt.compareAndSet(lastEvict, now)) {
+      // 全件走査のため、上限到達中も実行は一定間隔に抑える
+      entries.values().removeIf(entry -> now - entry.loadedAt() > ttlNanos);
+    }
+    return entries.size() < maxEntries;
+  }
+
+  private record Entry(UserPrincipal principal, int tokenVersion, long loadedAt) {}
+}
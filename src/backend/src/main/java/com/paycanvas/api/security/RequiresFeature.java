@@ -0,0 +1,27 @@
+package com.paycanvas.api.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * コントローラーのメソッド（またはクラス全体）を、所属企業で機能が有効な場合のみ実行可能にします。
+ *
+ * <p>判定はアクセストークンの発行時点ではなくリクエスト時点の企業設定で行うため、機能の切り替えは
+ * トークンの再発行を待たずに反映されます。SUPER_ADMINは判定の対象外です。</p>
+ *
+ * @see FeatureGuardInterceptor
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresFeature {
+  /**
+   * 必要な機能キー（m_features.feature_key、例: BONUS_SYSTEM）。
+   *
+   * @return 機能キー
+   */
+  String value();
+}
@@ -0,0 +1,57 @@
+package com.paycanvas.api.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ロックを使用しないトークンバケットです。
+ *
+ * <p>最大{@code capacity}回まで連続で許可し、以降は{@code refillIntervalNanos}ごとに1回分回復します。
+ * 状態は「バケットが満杯に戻る時刻」を表す1つのlong値のみで、CASで更新します（GCRA方式）。</p>
+ */
+public final class TokenBucket {
+  private final long refillIntervalNanos;
+  private final long burstNanos;
+  private final AtomicLong fullAt;
+
+  /**
+   * TokenBucketのコンストラクタです。
+   *
+   * @param capacity バケットの容量（連続で許可する回数）
+   * @param refillIntervalNanos 1回分が回復するまでの時間（ナノ秒）
+   * @param nowNanos 現在時刻（{@link System#nanoTime()}）
+   */
+  public TokenBucket(int capacity, long refillIntervalNanos, long nowNanos) {
+    this.refillIntervalNanos = refillIntervalNanos;
+    this.burstNanos = capacity * refillIntervalNanos;
+    this.fullAt = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * 1回分を消費します。
+   *
+   * @param nowNanos 現在時刻（{@link System#nanoTime()}）
+   * @return 消費できた場合true（上限超過の場合false）
+   */
+  public boolean tryAcquire(long nowNanos) {
+    while (true) {
+      long current = fullAt.get();
+      long next = Math.max(current, nowNanos) + refillIntervalNanos;
+      if (next - nowNanos > burstNanos) {
+        return false;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * バケットが満杯（未使用と同じ状態）かを判定します。満杯のバケットは破棄しても挙動が変わりません。
+   *
+   * @param nowNanos 現在時刻（{@link System#nanoTime()}）
+   * @return 満杯の場合true
+   */
+  public boolean isFull(long nowNanos) {
+    return fullAt.get() - nowNanos <= 0;
+  }
+}
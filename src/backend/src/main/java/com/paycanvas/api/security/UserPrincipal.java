@@ -9,25 +9,81 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 public class UserPrincipal implements UserDetails {
   private final Integer id;
+  private final Integer companyId;
   private final String email;
   private final String password;
   private final String roleKey;
+  // アクセストークンの feat クレーム（未加工）。参照されたときに初めて復号する
+  private final String featuresClaim;
+  private volatile FeatureSet features;
 
   public UserPrincipal(UserAccount user, String roleKey) {
     this.id = user.getId();
+    this.companyId = user.getCompany() != null ? user.getCompany().getId() : null;
     this.email = user.getEmail();
     this.password = user.getPasswordHash();
     this.roleKey = roleKey;
+    this.featuresClaim = null;
+    this.features = FeatureSet.empty();
+  }
+
+  private UserPrincipal(UserPrincipal source, String featuresClaim) {
+    this.id = source.id;
+    this.companyId = source.companyId;
+    this.email = source.email;
+    this.password = source.password;
+    this.roleKey = source.roleKey;
+    this.featuresClaim = featuresClaim;
+  }
+
+  /**
+   * アクセストークンの利用可能機能を付与したプリンシパルを返します。
+   * キャッシュ済みのプリンシパルは共有されるため、元のインスタンスは変更しません。
+   * クレームは{@link #getFeatures()}・{@link #hasFeature(int)}の初回呼び出し時に復号します。
+   *
+   * @param featuresClaim アクセストークンの feat クレーム（ない場合はnull）
+   * @return 利用可能機能を持つプリンシパル
+   */
+  public UserPrincipal withFeatures(String featuresClaim) {
+    return new UserPrincipal(this, featuresClaim);
   }
 
   public Integer getId() {
     return id;
   }
 
+  public Integer getCompanyId() {
+    return companyId;
+  }
+
   public String getRoleKey() {
     return roleKey;
   }
 
+  public FeatureSet getFeatures() {
+    FeatureSet decoded = features;
+    if (decoded == null) {
+      try {
+        decoded = FeatureSet.decode(featuresClaim);
+      } catch (IllegalArgumentException ex) {
+        // 不正な形式のクレームは利用可能機能なしとして扱う
+        decoded = FeatureSet.empty();
+      }
+      features = decoded;
+    }
+    return decoded;
+  }
+
+  /**
+   * 機能が利用可能かを判定します。
+   *
+   * @param featureId 機能ID（m_features.id）
+   * @return 利用可能な場合true
+   */
+  public boolean hasFeature(int featureId) {
+    return getFeatures().contains(featureId);
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
     return List.of(new SimpleGrantedAuthority("ROLE_" + roleKey));
@@ -0,0 +1,157 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.model.AttendanceBulkStatusRequest;
+import com.paycanvas.api.model.AttendanceBulkStatusResult;
+import com.paycanvas.api.security.UserPrincipal;
+import com.paycanvas.api.service.dashboard.DashboardDataChangedEvent;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.Map;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 勤怠の承認・差戻しを担当するサービスクラスです。
+ *
+ * <p>一括処理は対象行の抽出から更新・集計までを1つのSQL文で行い、
+ * 月締め時の数千件規模の承認も1リクエストで完了させます。
+ * 更新した行の勤務月はダッシュボード集計の再集計対象として通知します。</p>
+ */
+@Service
+public class AttendanceApprovalService extends CustomService {
+  /** 承認済ステータス */
+  public static final String STATUS_APPROVED = "承認済";
+  /** 要確認ステータス */
+  public static final String STATUS_NEEDS_REVIEW = "要確認";
+  /** 差戻しステータス */
+  public static final String STATUS_REJECTED = "差戻し";
+
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final PendingAttendanceCounter pendingAttendanceCounter;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * AttendanceApprovalServiceのコンストラクタです。
+   *
+   * @param namedParameterJdbcTemplate 名前付きパラメータ対応のJDBCテンプレート
+   * @param pendingAttendanceCounter 勤怠未承認件数カウンター
+   * @param eventPublisher ダッシュボード集計の更新イベントの発行者
+   */
+  public AttendanceApprovalService(
+      NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+      PendingAttendanceCounter pendingAttendanceCounter,
+      ApplicationEventPublisher eventPublisher) {
+    this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    this.pendingAttendanceCounter = pendingAttendanceCounter;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * 条件に一致する勤怠を一括で承認または差戻しします。
+   * 既に同じステータスの行、及び{@code asOf}以降に更新された行は更新しません。
+   *
+   * @param request 一括更新リクエスト
+   * @return 更新件数と未承認件数の増減
+   * @throws ResponseStatusException 対象の指定（IDリストまたは期間）がない場合
+   */
+  @Transactional
+  public AttendanceBulkStatusResult updateStatus(AttendanceBulkStatusRequest request) {
+    boolean hasIds = !CollectionUtils.isEmpty(request.ids());
+    if (!hasIds && (request.from() == null || request.to() == null)) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "対象のIDリスト、または期間（from/to）を指定してください");
+    }
+    if (request.from() != null && request.to() != null && request.to().isBefore(request.from())) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "期間の指定が不正です");
+    }
+
+    Integer companyId = getCurrentCompanyId();
+    String newStatus = "APPROVE".equals(request.action()) ? STATUS_APPROVED : STATUS_REJECTED;
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("companyId", companyId)
+            .addValue("status", newStatus)
+            .addValue("userId", currentUserId())
+            .addValue("asOf", request.asOf() != null ? Timestamp.valueOf(request.asOf()) : null);
+
+    StringBuilder filter =
+        new StringBuilder(" WHERE company_id = :companyId AND status <> :status");
+    if (request.from() != null) {
+      // 日付は半開区間で指定し、パーティションプルーニングを効かせる
+      filter.append(" AND work_date >= :from");
+      params.addValue("from", request.from());
+    }
+    if (request.to() != null) {
+      filter.append(" AND work_date < :toExclusive");
+      params.addValue("toExclusive", request.to().plusDays(1));
+    }
+    if (hasIds) {
+      filter.append(" AND id IN (:ids)");
+      params.addValue("ids", request.ids());
+    }
+    if (request.storeId() != null) {
+      filter.append(" AND store_id = :storeId");
+      params.addValue("storeId", request.storeId());
+    }
+    if (!CollectionUtils.isEmpty(request.employeeIds())) {
+      filter.append(" AND employee_id IN (:employeeIds)");
+      params.addValue("employeeIds", request.employeeIds());
+    }
+
+    String sql =
+        "WITH target AS ("
+            + " SELECT id, work_date, status AS previous_status,"
+            + " (CAST(:asOf AS timestamp) IS NOT NULL AND updated_at > CAST(:asOf AS timestamp)) AS conflicted"
+            + " FROM t_daily_attendances"
+            + filter
+            + " FOR UPDATE"
+            + "), updated AS ("
+            + " UPDATE t_daily_attendances a"
+            + " SET status = :status, updated_at = NOW(), approved_by = :userId, approved_at = NOW()"
+            + " FROM target t"
+            + " WHERE a.id = t.id AND a.work_date = t.work_date AND NOT t.conflicted"
+            + " RETURNING t.previous_status, t.work_date"
+            + ")"
+            + " SELECT (SELECT COUNT(*) FROM updated) AS updated_count,"
+            + " (SELECT COUNT(*) FROM updated WHERE previous_status <> '" + STATUS_APPROVED + "') AS previously_pending,"
+            + " (SELECT COUNT(*) FROM target WHERE conflicted) AS conflict_count,"
+            + " (SELECT STRING_AGG(DISTINCT TO_CHAR(work_date, 'YYYY-MM'), ',') FROM updated) AS updated_months";
+
+    Map<String, Object> row = namedParameterJdbcTemplate.queryForMap(sql, params);
+    int updatedCount = ((Number) row.get("updated_count")).intValue();
+    int previouslyPending = ((Number) row.get("previously_pending")).intValue();
+    int conflictCount = ((Number) row.get("conflict_count")).intValue();
+    String updatedMonths = (String) row.get("updated_months");
+    if (updatedMonths != null) {
+      // 月締め後の承認で過去月の未承認件数が古いまま残らないよう、更新した勤務月を再集計対象にする
+      for (String month : updatedMonths.split(",")) {
+        eventPublisher.publishEvent(new DashboardDataChangedEvent(companyId, YearMonth.parse(month)));
+      }
+    }
+
+    // 承認: 未承認だった行が減る / 差戻し: 承認済だった行が未承認に戻る
+    long pendingDelta =
+        STATUS_APPROVED.equals(newStatus) ? -previouslyPending : updatedCount - previouslyPending;
+    long pendingCount = pendingAttendanceCounter.apply(companyId, pendingDelta);
+
+    return new AttendanceBulkStatusResult(
+        newStatus, updatedCount, conflictCount, pendingDelta, pendingCount);
+  }
+
+  private Integer currentUserId() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+      return principal.getId();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,420 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.model.AttendanceAnomalySummary;
+import com.paycanvas.api.model.AttendanceImportRequest;
+import com.paycanvas.api.model.AttendanceImportRow;
+import com.paycanvas.api.model.AttendanceIngestResult;
+import com.paycanvas.api.service.attendance.AttendanceAnomaly;
+import com.paycanvas.api.service.attendance.AttendanceRow;
+import com.paycanvas.api.service.attendance.AttendanceRuleEngine;
+import com.paycanvas.api.service.dashboard.DashboardDataChangedEvent;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 勤怠の取込・編集とルール評価を担当するサービスクラスです。
+ *
+ * <p>取込・編集対象の従業員について前後1日を含む既存行を1回のクエリで読み込み、
+ * {@link AttendanceRuleEngine}で再評価します。フラグが変化した行だけを更新し、
+ * 企業・月別の異常件数カウンタ（t_attendance_anomaly_counters）へ差分を反映するため、
+ * 件数の参照時に t_daily_attendances を走査する必要はありません。
+ * 更新した行の勤務月はダッシュボード集計の再集計対象として通知します。</p>
+ */
+@Service
+public class AttendanceIngestService extends CustomService {
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final PendingAttendanceCounter pendingAttendanceCounter;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * AttendanceIngestServiceのコンストラクタです。
+   *
+   * @param namedParameterJdbcTemplate 名前付きパラメータ対応のJDBCテンプレート
+   * @param pendingAttendanceCounter 勤怠未承認件数カウンター
+   * @param eventPublisher ダッシュボード集計の更新イベントの発行者
+   */
+  public AttendanceIngestService(
+      NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+      PendingAttendanceCounter pendingAttendanceCounter,
+      ApplicationEventPublisher eventPublisher) {
+    this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    this.pendingAttendanceCounter = pendingAttendanceCounter;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * 勤怠を一括で取り込みます。取込行は要確認ステータスで登録されます。
+   *
+   * @param request 取込リクエスト
+   * @return 取込結果
+   * @throws ResponseStatusException 他企業の従業員、または存在しない店舗が含まれる場合
+   */
+  @Transactional
+  public AttendanceIngestResult importAttendances(AttendanceImportRequest request) {
+    Integer companyId = getCurrentCompanyId();
+    List<AttendanceImportRow> rows = request.rows();
+    Set<Integer> employeeIds = new HashSet<>();
+    Set<Integer> storeIds = new HashSet<>();
+    LocalDate from = rows.get(0).workDate();
+    LocalDate to = from;
+    for (AttendanceImportRow row : rows) {
+      employeeIds.add(row.employeeId());
+      storeIds.add(row.storeId());
+      from = row.workDate().isBefore(from) ? row.workDate() : from;
+      to = row.workDate().isAfter(to) ? row.workDate() : to;
+    }
+    requireCompanyEmployees(companyId, employeeIds);
+    AttendanceRuleEngine engine = ruleEngine(companyId, storeIds);
+
+    Map<Integer, List<StoredRow>> byEmployee = loadRows(companyId, employeeIds, from, to);
+    for (AttendanceImportRow row : rows) {
+      byEmployee
+          .computeIfAbsent(row.employeeId(), id -> new ArrayList<>())
+          .add(StoredRow.imported(toRow(null, row), row.workHours()));
+    }
+    return apply(companyId, engine, byEmployee);
+  }
+
+  /**
+   * 勤怠1件を編集します。異常がある場合、または承認済の勤怠を編集した場合は要確認に戻します。
+   *
+   * @param id 勤怠ID
+   * @param row 編集内容
+   * @return 編集結果
+   * @throws ResponseStatusException 勤怠が存在しない、従業員が変更された、または存在しない店舗の場合
+   */
+  @Transactional
+  public AttendanceIngestResult updateAttendance(Integer id, AttendanceImportRow row) {
+    Integer companyId = getCurrentCompanyId();
+    List<Map<String, Object>> current =
+        namedParameterJdbcTemplate.queryForList(
+            "SELECT employee_id, work_date FROM t_daily_attendances"
+                + " WHERE id = :id AND company_id = :companyId FOR UPDATE",
+            new MapSqlParameterSource().addValue("id", id).addValue("companyId", companyId));
+    if (current.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "勤怠が見つかりません");
+    }
+    int employeeId = ((Number) current.get(0).get("employee_id")).intValue();
+    if (employeeId != row.employeeId()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "勤怠の従業員は変更できません");
+    }
+    LocalDate previousDate = ((Date) current.get(0).get("work_date")).toLocalDate();
+    LocalDate from = previousDate.isBefore(row.workDate()) ? previousDate : row.workDate();
+    LocalDate to = previousDate.isAfter(row.workDate()) ? previousDate : row.workDate();
+    AttendanceRuleEngine engine = ruleEngine(companyId, Set.of(row.storeId()));
+
+    Map<Integer, List<StoredRow>> byEmployee = loadRows(companyId, Set.of(employeeId), from, to);
+    List<StoredRow> employeeRows = byEmployee.get(employeeId);
+    for (int i = 0; i < employeeRows.size(); i++) {
+      StoredRow stored = employeeRows.get(i);
+      if (id.equals(stored.row().id())) {
+        employeeRows.set(i, stored.edited(toRow(id, row), row.workHours()));
+      }
+    }
+    return apply(companyId, engine, byEmployee);
+  }
+
+  /**
+   * 指定月の勤怠異常件数を返します。ダッシュボードや給与計算前チェックから参照します。
+   *
+   * @param companyId 企業ID
+   * @param month 対象月
+   * @return 異常区分ごとの件数
+   */
+  @Transactional(readOnly = true)
+  public AttendanceAnomalySummary anomalySummary(Integer companyId, YearMonth month) {
+    Map<String, Integer> counts = new LinkedHashMap<>();
+    for (AttendanceAnomaly anomaly : AttendanceAnomaly.values()) {
+      counts.put(anomaly.name(), 0);
+    }
+    namedParameterJdbcTemplate.query(
+        "SELECT anomaly_code, anomaly_count FROM t_attendance_anomaly_counters"
+            + " WHERE company_id = :companyId AND target_month = :month",
+        new MapSqlParameterSource()
+            .addValue("companyId", companyId)
+            .addValue("month", month.toString()),
+        rs -> {
+          counts.put(rs.getString("anomaly_code"), rs.getInt("anomaly_count"));
+        });
+    int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+    return new AttendanceAnomalySummary(month.toString(), counts, total);
+  }
+
+  /**
+   * ログイン中の企業について、指定月の勤怠異常件数を返します。
+   *
+   * @param month 対象月
+   * @return 異常区分ごとの件数
+   */
+  @Transactional(readOnly = true)
+  public AttendanceAnomalySummary anomalySummary(YearMonth month) {
+    return anomalySummary(getCurrentCompanyId(), month);
+  }
+
+  private AttendanceIngestResult apply(
+      Integer companyId, AttendanceRuleEngine engine, Map<Integer, List<StoredRow>> byEmployee) {
+    List<SqlParameterSource> inserts = new ArrayList<>();
+    List<SqlParameterSource> updates = new ArrayList<>();
+    Map<String, Integer> counterDeltas = new HashMap<>();
+    Set<YearMonth> changedMonths = new HashSet<>();
+    int flagged = 0;
+    long pendingDelta = 0;
+
+    for (List<StoredRow> employeeRows : byEmployee.values()) {
+      List<AttendanceRow> rows = new ArrayList<>(employeeRows.size());
+      for (StoredRow stored : employeeRows) {
+        rows.add(stored.row());
+      }
+      int[] flags = engine.evaluateEmployee(rows);
+      for (int i = 0; i < flags.length; i++) {
+        StoredRow stored = employeeRows.get(i);
+        if (!stored.changed() && flags[i] == stored.previousFlags()) {
+          continue;
+        }
+        boolean gainedAnomaly = (flags[i] & ~stored.previousFlags()) != 0;
+        String status = stored.previousStatus();
+        if (status == null || stored.changed() || gainedAnomaly) {
+          status = AttendanceApprovalService.STATUS_NEEDS_REVIEW;
+        }
+        if (AttendanceApprovalService.STATUS_APPROVED.equals(stored.previousStatus())
+            && !AttendanceApprovalService.STATUS_APPROVED.equals(status)) {
+          pendingDelta++;
+        }
+        if (stored.previousStatus() == null) {
+          pendingDelta++;
+        }
+        if (flags[i] != 0) {
+          flagged++;
+        }
+        if (stored.previousDate() != null) {
+          changedMonths.add(YearMonth.from(stored.previousDate()));
+        }
+        changedMonths.add(YearMonth.from(stored.row().workDate()));
+        addCounterDeltas(counterDeltas, stored.previousDate(), stored.previousFlags(), -1);
+        addCounterDeltas(counterDeltas, stored.row().workDate(), flags[i], 1);
+        SqlParameterSource params = params(companyId, stored, flags[i], status);
+        if (stored.row().id() == null) {
+          inserts.add(params);
+        } else {
+          updates.add(params);
+        }
+      }
+    }
+
+    if (!inserts.isEmpty()) {
+      namedParameterJdbcTemplate.batchUpdate(
+          "INSERT INTO t_daily_attendances (company_id, employee_id, store_id, work_date, check_in,"
+              + " check_out, work_hours, tardy_minutes, attendance_type, status, anomaly_flags)"
+              + " VALUES (:companyId, :employeeId, :storeId, :workDate, :checkIn, :checkOut,"
+              + " :workHours, :tardyMinutes, :attendanceType, :status, :anomalyFlags)",
+          inserts.toArray(SqlParameterSource[]::new));
+    }
+    if (!updates.isEmpty()) {
+      // 勤務日の変更で月をまたぐ場合は、パーティション間の行移動となる
+      namedParameterJdbcTemplate.batchUpdate(
+          "UPDATE t_daily_attendances SET store_id = :storeId, work_date = :workDate,"
+              + " check_in = :checkIn, check_out = :checkOut,"
+              + " work_hours = CASE WHEN :edited THEN :workHours ELSE work_hours END,"
+              + " tardy_minutes = :tardyMinutes, attendance_type = :attendanceType,"
+              + " status = :status, anomaly_flags = :anomalyFlags, updated_at = NOW()"
+              + " WHERE id = :id AND work_date = :previousDate AND company_id = :companyId",
+          updates.toArray(SqlParameterSource[]::new));
+    }
+    applyCounterDeltas(companyId, counterDeltas);
+    // 勤務日の変更で月をまたいだ行は、移動元・移動先の両方の月を再集計対象にする
+    changedMonths.forEach(
+        month -> eventPublisher.publishEvent(new DashboardDataChangedEvent(companyId, month)));
+    long pendingCount = pendingAttendanceCounter.apply(companyId, pendingDelta);
+    return new AttendanceIngestResult(inserts.size(), updates.size(), flagged, pendingCount);
+  }
+
+  private SqlParameterSource params(
+      Integer companyId, StoredRow stored, int flags, String status) {
+    AttendanceRow row = stored.row();
+    return new MapSqlParameterSource()
+        .addValue("id", row.id())
+        .addValue("companyId", companyId)
+        .addValue("employeeId", row.employeeId())
+        .addValue("storeId", row.storeId())
+        .addValue("workDate", row.workDate())
+        .addValue("previousDate", stored.previousDate())
+        .addValue("checkIn", row.checkIn() != null ? Time.valueOf(row.checkIn()) : null)
+        .addValue("checkOut", row.checkOut() != null ? Time.valueOf(row.checkOut()) : null)
+        .addValue("edited", stored.changed())
+        .addValue("workHours", stored.workHours())
+        .addValue("tardyMinutes", row.tardyMinutes())
+        .addValue("attendanceType", row.attendanceType())
+        .addValue("status", status)
+        .addValue("anomalyFlags", flags);
+  }
+
+  private void addCounterDeltas(Map<String, Integer> deltas, LocalDate date, int flags, int sign) {
+    if (date == null || flags == 0) {
+      return;
+    }
+    String month = YearMonth.from(date).toString();
+    for (AttendanceAnomaly anomaly : AttendanceAnomaly.values()) {
+      if (anomaly.in(flags)) {
+        deltas.merge(month + "|" + anomaly.name(), sign, Integer::sum);
+      }
+    }
+  }
+
+  private void applyCounterDeltas(Integer companyId, Map<String, Integer> deltas) {
+    List<SqlParameterSource> params = new ArrayList<>();
+    deltas.forEach(
+        (key, delta) -> {
+          if (delta == 0) {
+            return;
+          }
+          int separator = key.indexOf('|');
+          params.add(
+              new MapSqlParameterSource()
+                  .addValue("companyId", companyId)
+                  .addValue("month", key.substring(0, separator))
+                  .addValue("code", key.substring(separator + 1))
+                  .addValue("delta", delta));
+        });
+    if (params.isEmpty()) {
+      return;
+    }
+    namedParameterJdbcTemplate.batchUpdate(
+        "INSERT INTO t_attendance_anomaly_counters (company_id, target_month, anomaly_code, anomaly_count)"
+            + " VALUES (:companyId, :month, :code, GREATEST(:delta, 0))"
+            + " ON CONFLICT (company_id, target_month, anomaly_code) DO UPDATE"
+            + " SET anomaly_count = GREATEST(t_attendance_anomaly_counters.anomaly_count + :delta, 0)",
+        params.toArray(SqlParameterSource[]::new));
+  }
+
+  private Map<Integer, List<StoredRow>> loadRows(
+      Integer companyId, Set<Integer> employeeIds, LocalDate from, LocalDate to) {
+    Map<Integer, List<StoredRow>> byEmployee = new HashMap<>();
+    for (Integer employeeId : employeeIds) {
+      byEmployee.put(employeeId, new ArrayList<>());
+    }
+    // 日付をまたぐ勤務の重複を検出するため、前後1日を含めて読み込む
+    namedParameterJdbcTemplate.query(
+        "SELECT id, employee_id, store_id, work_date, check_in, check_out, tardy_minutes,"
+            + " attendance_type, status, anomaly_flags"
+            + " FROM t_daily_attendances"
+            + " WHERE company_id = :companyId AND employee_id IN (:employeeIds)"
+            + " AND work_date >= :from AND work_date < :toExclusive"
+            + " FOR UPDATE",
+        new MapSqlParameterSource()
+            .addValue("companyId", companyId)
+            .addValue("employeeIds", employeeIds)
+            .addValue("from", from.minusDays(1))
+            .addValue("toExclusive", to.plusDays(2)),
+        rs -> {
+          Time checkIn = rs.getTime("check_in");
+          Time checkOut = rs.getTime("check_out");
+          LocalDate workDate = rs.getDate("work_date").toLocalDate();
+          AttendanceRow row =
+              new AttendanceRow(
+                  rs.getInt("id"),
+                  rs.getInt("employee_id"),
+                  rs.getInt("store_id"),
+                  workDate,
+                  checkIn != null ? checkIn.toLocalTime() : null,
+                  checkOut != null ? checkOut.toLocalTime() : null,
+                  rs.getObject("tardy_minutes", Integer.class),
+                  rs.getString("attendance_type"));
+          byEmployee
+              .get(row.employeeId())
+              .add(
+                  new StoredRow(
+                      row, null, workDate, rs.getInt("anomaly_flags"), rs.getString("status"), false));
+        });
+    return byEmployee;
+  }
+
+  private void requireCompanyEmployees(Integer companyId, Set<Integer> employeeIds) {
+    Integer found =
+        namedParameterJdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM m_employees WHERE company_id = :companyId AND id IN (:ids)",
+            new MapSqlParameterSource().addValue("companyId", companyId).addValue("ids", employeeIds),
+            Integer.class);
+    if (found == null || found != employeeIds.size()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "所属企業に存在しない従業員が含まれています");
+    }
+  }
+
+  private AttendanceRuleEngine ruleEngine(Integer companyId, Set<Integer> storeIds) {
+    Set<Integer> companyStores =
+        new HashSet<>(
+            namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM m_stores WHERE company_id = :companyId",
+                new MapSqlParameterSource("companyId", companyId),
+                Integer.class));
+    Set<Integer> otherStores = new HashSet<>(storeIds);
+    otherStores.removeAll(companyStores);
+    if (!otherStores.isEmpty()) {
+      Integer existing =
+          namedParameterJdbcTemplate.queryForObject(
+              "SELECT COUNT(*) FROM m_stores WHERE id IN (:storeIds)",
+              new MapSqlParameterSource("storeIds", otherStores),
+              Integer.class);
+      if (existing == null || existing != otherStores.size()) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "存在しない店舗が含まれています");
+      }
+    }
+    // 他企業の店舗は取込を拒否せず、店舗不明としてフラグを立てて確認に回す
+    return new AttendanceRuleEngine(companyStores::contains);
+  }
+
+  private AttendanceRow toRow(Integer id, AttendanceImportRow row) {
+    return new AttendanceRow(
+        id,
+        row.employeeId(),
+        row.storeId(),
+        row.workDate(),
+        row.checkIn(),
+        row.checkOut(),
+        row.tardyMinutes(),
+        row.attendanceTypeOrDefault());
+  }
+
+  /**
+   * 評価対象の行と、DB上の評価前の状態です。
+   *
+   * @param row 評価対象の内容
+   * @param workHours 取込・編集で指定された労働時間
+   * @param previousDate DB上の勤務日（新規行はnull）
+   * @param previousFlags DB上の異常フラグ
+   * @param previousStatus DB上のステータス（新規行はnull）
+   * @param changed 取込・編集により内容が変わった行か
+   */
+  private record StoredRow(
+      AttendanceRow row,
+      Integer workHours,
+      LocalDate previousDate,
+      int previousFlags,
+      String previousStatus,
+      boolean changed) {
+
+    static StoredRow imported(AttendanceRow row, Integer workHours) {
+      return new StoredRow(row, workHours, null, 0, null, true);
+    }
+
+    StoredRow edited(AttendanceRow newRow, Integer newWorkHours) {
+      return new StoredRow(newRow, newWorkHours, previousDate, previousFlags, previousStatus, true);
+    }
+  }
+}
@@ -3,14 +3,17 @@ package com.paycanvas.api.service;
 import com.paycanvas.api.entity.Company;
 import com.paycanvas.api.entity.RefreshToken;
 import com.paycanvas.api.entity.UserAccount;
-import com.paycanvas.api.entity.UserRole;
 import com.paycanvas.api.model.LoginResponse;
 import com.paycanvas.api.model.UserSummary;
-import com.paycanvas.api.repository.UserRepository;
-import com.paycanvas.api.repository.UserRoleRepository;
-import java.util.HashSet;
+import com.paycanvas.api.security.LoginRateLimiter;
+import com.paycanvas.api.security.PasswordVerifier;
+import io.jsonwebtoken.Claims;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,36 +24,75 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @Service
 public class AuthService {
-  private final UserRepository userRepository;
-  private final UserRoleRepository userRoleRepository;
-  private final PasswordEncoder passwordEncoder;
+  /**
+   * ログインに必要なユーザー・所属企業・ロール・利用可能機能を1回の問い合わせで取得するSQL。
+   * ロールが複数ある場合はID順の先頭（権限の強いもの）、未設定の場合はSTAFFとします。
+   */
+  private static final String LOGIN_ACCOUNT_SQL =
+      """
+      SELECT u.id, u.password_hash, u.display_name, u.token_version,
+             c.id AS company_id, c.name AS company_name,
+             COALESCE(r.role_key, 'STAFF') AS role_key,
+             CASE WHEN r.role_key = 'SUPER_ADMIN'
+                  THEN ARRAY(SELECT f.feature_key FROM m_features f ORDER BY f.id)
+                  ELSE ARRAY(
+                      SELECT f.feature_key
+                      FROM m_company_features cf
+                      JOIN m_features f ON f.id = cf.feature_id
+                      WHERE cf.company_id = u.company_id AND cf.is_enabled
+                      ORDER BY f.id)
+             END AS features
+      FROM m_users u
+      LEFT JOIN m_companies c ON c.id = u.company_id
+      LEFT JOIN LATERAL (
+          SELECT ro.role_key
+          FROM m_user_roles ur
+          JOIN m_roles ro ON ro.id = ur.role_id
+          WHERE ur.user_id = u.id
+          ORDER BY ro.id
+          LIMIT 1
+      ) r ON TRUE
+      WHERE u.email = ? AND u.status = 'ACTIVE'
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final PasswordVerifier passwordVerifier;
+  private final LoginRateLimiter loginRateLimiter;
   private final JwtService jwtService;
   private final RefreshTokenService refreshTokenService;
   private final FeatureService featureService;
+  private final FeatureCatalog featureCatalog;
+  private final TokenRevocationService tokenRevocationService;
 
   /**
    * AuthServiceのコンストラクタです。
    *
-   * @param userRepository ユーザー情報のリポジトリ
-   * @param userRoleRepository ユーザーロール情報のリポジトリ
-   * @param passwordEncoder パスワードエンコーダー
+   * @param jdbcTemplate JDBCテンプレート
+   * @param passwordVerifier パスワード照合コンポーネント
+   * @param loginRateLimiter ログイン試行回数の制限コンポーネント
    * @param jwtService JWTトークン管理サービス
    * @param refreshTokenService リフレッシュトークン管理サービス
    * @param featureService 機能管理サービス
+   * @param featureCatalog 機能キー⇔機能IDの辞書
+   * @param tokenRevocationService アクセストークン失効サービス
    */
   public AuthService(
-      UserRepository userRepository,
-      UserRoleRepository userRoleRepository,
-      PasswordEncoder passwordEncoder,
+      JdbcTemplate jdbcTemplate,
+      PasswordVerifier passwordVerifier,
+      LoginRateLimiter loginRateLimiter,
       JwtService jwtService,
       RefreshTokenService refreshTokenService,
-      FeatureService featureService) {
-    this.userRepository = userRepository;
-    this.userRoleRepository = userRoleRepository;
-    this.passwordEncoder = passwordEncoder;
+      FeatureService featureService,
+      FeatureCatalog featureCatalog,
+      TokenRevocationService tokenRevocationService) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.passwordVerifier = passwordVerifier;
+    this.loginRateLimiter = loginRateLimiter;
     this.jwtService = jwtService;
     this.refreshTokenService = refreshTokenService;
     this.featureService = featureService;
+    this.featureCatalog = featureCatalog;
+    this.tokenRevocationService = tokenRevocationService;
   }
 
   /**
@@ -60,34 +102,38 @@ public class AuthService {
    *
    * @param email ユーザーのメールアドレス
    * @param rawPassword パスワード（平文）
+   * @param clientIp 接続元IPアドレス
    * @return ログイン成功時の認証情報、失敗時はnull
+   * @throws org.springframework.web.server.ResponseStatusException 試行回数の上限を超えた場合（429）
    */
-  @Transactional
-  public LoginResponse login(String email, String rawPassword) {
-    UserAccount user =
-        userRepository
-            .findByEmail(email)
-            .filter(u -> passwordEncoder.matches(rawPassword, u.getPasswordHash()))
+  public LoginResponse login(String email, String rawPassword, String clientIp) {
+    loginRateLimiter.acquire(email, clientIp);
+    // パスワード照合（BCrypt）の間はDB接続・トランザクションを保持しない
+    LoginAccount account =
+        jdbcTemplate.query(LOGIN_ACCOUNT_SQL, this::mapLoginAccount, email).stream()
+            .findFirst()
             .orElse(null);
-    if (user == null) {
+    if (account == null || !passwordVerifier.matches(rawPassword, account.passwordHash())) {
       return null;
     }
 
-    // Manually load roles with the Role entity
-    List<UserRole> userRoles = userRoleRepository.findByUserIdWithRole(user.getId());
-    user.setRoles(new HashSet<>(userRoles));
-
-    String roleKey =
-        user.getRoles().stream()
-            .map(userRole -> userRole.getRole().getRoleKey())
-            .findFirst()
-            .orElse("STAFF");
-
-    List<String> enabledFeatures = resolveFeatures(user, roleKey);
-
-    UserSummary summary = buildSummary(user, roleKey, enabledFeatures);
-    JwtService.JwtToken accessToken = jwtService.generateAccessToken(user, roleKey, enabledFeatures);
-    RefreshToken refreshToken = refreshTokenService.create(user);
+    UserSummary summary =
+        new UserSummary(
+            account.userId(),
+            account.companyId() != null ? account.companyId() : 0,
+            account.companyName() != null ? account.companyName() : "",
+            account.roleKey(),
+            account.enabledFeatures(),
+            account.displayName());
+    RefreshToken refreshToken = refreshTokenService.create(account.userId());
+    JwtService.JwtToken accessToken =
+        jwtService.generateAccessToken(
+            account.userId(),
+            account.companyId(),
+            account.tokenVersion(),
+            account.roleKey(),
+            featureCatalog.toFeatureSet(account.enabledFeatures()),
+            refreshToken.getFamilyId());
 
     return new LoginResponse(
         accessToken.token(), refreshToken.getToken(), accessToken.expiresAt(), summary);
@@ -102,21 +148,48 @@ public class AuthService {
    * @return 新しい認証情報
    * @throws IllegalArgumentException リフレッシュトークンが無効な場合
    */
-  @Transactional
+  @Transactional(noRollbackFor = IllegalArgumentException.class)
   public LoginResponse refresh(String refreshTokenValue) {
     RefreshToken existing = refreshTokenService.validate(refreshTokenValue);
+    // 再利用検知時はここで例外となり、セッションファミリーの失効はコミットされる
+    RefreshToken rotated = refreshTokenService.rotate(existing);
     UserAccount user = existing.getUser();
     String roleKey = jwtService.extractRole(user);
     List<String> enabledFeatures = resolveFeatures(user, roleKey);
     UserSummary summary = buildSummary(user, roleKey, enabledFeatures);
 
-    JwtService.JwtToken accessToken = jwtService.generateAccessToken(user, roleKey, enabledFeatures);
-    RefreshToken rotated = refreshTokenService.rotate(existing);
+    JwtService.JwtToken accessToken =
+        jwtService.generateAccessToken(
+            user, roleKey, featureCatalog.toFeatureSet(enabledFeatures), rotated.getFamilyId());
 
     return new LoginResponse(
         accessToken.token(), rotated.getToken(), accessToken.expiresAt(), summary);
   }
 
+  /**
+   * ログアウト処理を実行します。
+   * 使用中のアクセストークンを失効させ、同じ端末のセッションのリフレッシュトークンを削除します。
+   *
+   * @param accessToken 使用中のアクセストークン
+   */
+  @Transactional
+  public void logout(String accessToken) {
+    Claims claims = jwtService.parseToken(accessToken);
+    Integer userId = Integer.valueOf(claims.getSubject());
+    if (claims.getId() != null) {
+      tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration().toInstant());
+    } else {
+      // トークンID導入前に発行されたトークンはユーザー単位で失効させる
+      tokenRevocationService.revokeUser(userId);
+    }
+    String sessionId = claims.get("sid", String.class);
+    if (sessionId != null) {
+      refreshTokenService.revokeFamily(sessionId);
+    } else {
+      refreshTokenService.revokeAll(userId);
+    }
+  }
+
   /**
    * ユーザーの利用可能機能を解決します。
    * SUPER_ADMINの場合は全機能、それ以外は会社に設定された機能のみを返します。
@@ -142,6 +215,19 @@ public class AuthService {
     return featureService.listEnabledFeatureCodes(company.getId());
   }
 
+  private LoginAccount mapLoginAccount(ResultSet rs, int rowNum) throws SQLException {
+    Array features = rs.getArray("features");
+    return new LoginAccount(
+        rs.getInt("id"),
+        rs.getString("password_hash"),
+        rs.getString("display_name"),
+        rs.getInt("token_version"),
+        rs.getObject("company_id", Integer.class),
+        rs.getString("company_name"),
+        rs.getString("role_key"),
+        features != null ? Arrays.asList((String[]) features.getArray()) : List.of());
+  }
+
   /**
    * ユーザーサマリー情報を構築します。
    * JWTトークンに含めるユーザーの基本情報を作成します。
@@ -164,4 +250,14 @@ public class AuthService {
         enabledFeatures,
         user.getDisplayName());
   }
+
+  private record LoginAccount(
+      int userId,
+      String passwordHash,
+      String displayName,
+      int tokenVersion,
+      Integer companyId,
+      String companyName,
+      String roleKey,
+      List<String> enabledFeatures) {}
 }
@@ -0,0 +1,166 @@
+package com.paycanvas.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paycanvas.api.entity.Feature;
+import com.paycanvas.api.model.BootstrapPart;
+import com.paycanvas.api.model.BootstrapResponse;
+import com.paycanvas.api.security.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * ログイン直後の初期表示に必要なデータを1リクエストで返すサービスクラスです。
+ *
+ * <p>マスタ・利用可能機能は専用スレッドプールで並列に取得し、その間にリクエストスレッドで
+ * ダッシュボードを取得します。部分ごとにETagを付与し、クライアントが保持するETagと一致した
+ * 部分はデータ本体を省略します。</p>
+ */
+@Service
+public class BootstrapService extends CustomService {
+  private static final Logger log = LoggerFactory.getLogger(BootstrapService.class);
+  private static final String ROLE_SUPER_ADMIN = "SUPER_ADMIN";
+  private static final String ROLE_COMPANY_ADMIN = "COMPANY_ADMIN";
+
+  private final DashboardService dashboardService;
+  private final MasterDataService masterDataService;
+  private final FeatureService featureService;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService dashboardExecutor;
+  private final long deadlineMillis;
+
+  /**
+   * BootstrapServiceのコンストラクタです。
+   *
+   * @param dashboardService ダッシュボードサービス
+   * @param masterDataService マスタデータサービス
+   * @param featureService 機能管理サービス
+   * @param objectMapper ETag算出用のJSONシリアライザ
+   * @param dashboardExecutor 並列取得用のスレッドプール
+   * @param deadlineMillis 各部分の取得期限（ミリ秒）
+   */
+  public BootstrapService(
+      DashboardService dashboardService,
+      MasterDataService masterDataService,
+      FeatureService featureService,
+      ObjectMapper objectMapper,
+      @Qualifier("dashboardExecutor") ExecutorService dashboardExecutor,
+      @Value("${paycanvas.dashboard.deadline-millis:800}") long deadlineMillis) {
+    this.dashboardService = dashboardService;
+    this.masterDataService = masterDataService;
+    this.featureService = featureService;
+    this.objectMapper = objectMapper;
+    this.dashboardExecutor = dashboardExecutor;
+    this.deadlineMillis = deadlineMillis;
+  }
+
+  /**
+   * 初期表示データを取得します。マスタは会社管理者の場合のみ含みます。
+   * 企業に所属しないスーパー管理者のダッシュボードは集計せず、空で返します。
+   *
+   * @param knownEtags クライアントが保持している部分名ごとのETag
+   * @return 部分ごとのデータ
+   */
+  public BootstrapResponse bootstrap(Map<String, String> knownEtags) {
+    String roleKey = currentRoleKey();
+    Integer companyId = ROLE_SUPER_ADMIN.equals(roleKey) ? null : getCurrentCompanyId();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+
+    Map<String, Future<?>> futures = new LinkedHashMap<>();
+    if (ROLE_COMPANY_ADMIN.equals(roleKey)) {
+      futures.put("stores", submit(masterDataService::listStores));
+      futures.put("grades", submit(masterDataService::listGrades));
+      futures.put("salaryTiers", submit(masterDataService::listSalaryTiers));
+    }
+    futures.put("features", submit(() -> enabledFeatures(roleKey, companyId)));
+
+    Map<String, BootstrapPart> parts = new LinkedHashMap<>();
+    List<String> unavailable = new ArrayList<>();
+    // ダッシュボードは内部で並列取得するため、同じスレッドプールを待たないようリクエストスレッドで実行する
+    Map<String, List<?>> dashboard = companyId == null ? Map.of() : dashboardService.fetchDashboard();
+    parts.put("dashboard", part(dashboard, knownEtags.get("dashboard")));
+    futures.forEach(
+        (name, future) -> {
+          try {
+            Object data = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            parts.put(name, part(data, knownEtags.get(name)));
+          } catch (TimeoutException ex) {
+            future.cancel(true);
+            log.warn("初期表示データの{}が期限内に取得できませんでした", name);
+            unavailable.add(name);
+          } catch (ExecutionException ex) {
+            log.error("初期表示データの{}の取得に失敗しました", name, ex.getCause());
+            unavailable.add(name);
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            unavailable.add(name);
+          }
+        });
+    return new BootstrapResponse(parts, List.copyOf(unavailable));
+  }
+
+  private List<String> enabledFeatures(String roleKey, Integer companyId) {
+    if (ROLE_SUPER_ADMIN.equals(roleKey)) {
+      return featureService.listAllFeatures().stream().map(Feature::getFeatureKey).toList();
+    }
+    return featureService.listEnabledFeatureCodes(companyId);
+  }
+
+  private Future<?> submit(Callable<?> task) {
+    try {
+      // マスタ取得等がログインユーザーの企業を参照できるよう、セキュリティコンテキストを引き継ぐ
+      return dashboardExecutor.submit(new DelegatingSecurityContextCallable<>(task));
+    } catch (RejectedExecutionException ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+  }
+
+  private BootstrapPart part(Object data, String knownEtag) {
+    String etag = etag(data);
+    if (etag.equals(knownEtag)) {
+      return new BootstrapPart(etag, true, null);
+    }
+    return new BootstrapPart(etag, false, data);
+  }
+
+  private String etag(Object data) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(data));
+      String hash = Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+      return "\"" + hash + "\"";
+    } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("ETagの算出に失敗しました", ex);
+    }
+  }
+
+  private String currentRoleKey() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+      return principal.getRoleKey();
+    }
+    return "STAFF";
+  }
+}
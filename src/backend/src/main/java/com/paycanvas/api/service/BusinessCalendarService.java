@@ -0,0 +1,289 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.service.calendar.CalendarView;
+import com.paycanvas.api.service.calendar.YearBitSet;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * 国民の祝日と企業・店舗の定休日／臨時休業から営業日を判定するサービスクラスです。
+ *
+ * <p>祝日は同梱リソース（calendar/jp-national-holidays.csv）を起動時に1回読み込み、
+ * 企業ごとの定休日・上書き設定は初回参照時に2クエリで読み込みます。営業日は年単位の
+ * ビットセットとして保持するため、給与計算中に従業員×日ごとの祝日テーブル参照は発生しません。
+ * 他ノードでのマスタ更新はTTL経過で反映されます。</p>
+ */
+@Service
+public class BusinessCalendarService {
+  private static final Logger log = LoggerFactory.getLogger(BusinessCalendarService.class);
+  private static final String HOLIDAY_RESOURCE = "calendar/jp-national-holidays.csv";
+  private static final String VERSION_PREFIX = "# version=";
+  private static final YearBitSet EMPTY = new YearBitSet();
+
+  private final JdbcTemplate jdbcTemplate;
+  private final long ttlNanos;
+  private final Map<Integer, YearBitSet> resourceHolidays;
+  private final String holidayDataVersion;
+  private final Map<Integer, CompanyCalendar> companies = new ConcurrentHashMap<>();
+
+  private volatile Map<Integer, YearBitSet> nationalHolidays;
+
+  /**
+   * BusinessCalendarServiceのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param ttlSeconds 企業カレンダーの有効期間（秒）
+   */
+  public BusinessCalendarService(
+      JdbcTemplate jdbcTemplate,
+      @Value("${paycanvas.cache.calendar-ttl-seconds:600}") long ttlSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    this.resourceHolidays = new HashMap<>();
+    this.holidayDataVersion = loadHolidayResource(resourceHolidays);
+    log.info(
+        "祝日データを読み込みました（version={}, 対象年={}）",
+        holidayDataVersion,
+        resourceHolidays.keySet());
+  }
+
+  /**
+   * 企業（店舗）の営業カレンダーを返します。
+   * 給与計算など日付を大量に判定する処理では、本メソッドで取得したビューを使い回してください。
+   *
+   * @param companyId 企業ID
+   * @param storeId 店舗ID（nullの場合は企業全体の設定のみ適用）
+   * @return 営業カレンダー
+   */
+  public CalendarView view(Integer companyId, Integer storeId) {
+    CompanyCalendar calendar = companies.get(companyId);
+    if (calendar == null || System.nanoTime() - calendar.loadedAt() > ttlNanos) {
+      calendar = new CompanyCalendar(loadRules(companyId), System.nanoTime(), new ConcurrentHashMap<>());
+      companies.put(companyId, calendar);
+    }
+    CompanyRules rules = calendar.rules();
+    int storeKey = storeId != null ? storeId : 0;
+    return calendar
+        .views()
+        .computeIfAbsent(
+            storeKey,
+            key ->
+                new CalendarView(
+                    year -> buildWorkdays(rules, storeKey, year),
+                    this::nationalHolidays,
+                    rules.legalHolidayMask() | rules.storeLegalHolidayMask().getOrDefault(storeKey, 0)));
+  }
+
+  /**
+   * 営業日かどうかを判定します。
+   *
+   * @param companyId 企業ID
+   * @param storeId 店舗ID（null可）
+   * @param date 日付
+   * @return 営業日の場合true
+   */
+  public boolean isWorkday(Integer companyId, Integer storeId, LocalDate date) {
+    return view(companyId, storeId).isWorkday(date);
+  }
+
+  /**
+   * 期間内の営業日数を返します。
+   *
+   * @param companyId 企業ID
+   * @param storeId 店舗ID（null可）
+   * @param from 開始日
+   * @param toInclusive 終了日（この日を含む）
+   * @return 営業日数
+   */
+  public int countWorkdays(Integer companyId, Integer storeId, LocalDate from, LocalDate toInclusive) {
+    return view(companyId, storeId).countWorkdays(from, toInclusive);
+  }
+
+  /**
+   * 企業のカレンダーを破棄します。定休日・上書きマスタの更新時に呼び出してください。
+   *
+   * @param companyId 企業ID
+   */
+  public void invalidate(Integer companyId) {
+    companies.remove(companyId);
+  }
+
+  /**
+   * 祝日補正を含むすべてのカレンダーを破棄します。
+   */
+  public void invalidateAll() {
+    nationalHolidays = null;
+    companies.clear();
+  }
+
+  /**
+   * 読み込んだ祝日リソースのバージョンを返します。
+   *
+   * @return バージョン文字列（未記載の場合は"unknown"）
+   */
+  public String holidayDataVersion() {
+    return holidayDataVersion;
+  }
+
+  private YearBitSet nationalHolidays(int year) {
+    Map<Integer, YearBitSet> holidays = nationalHolidays;
+    if (holidays == null) {
+      holidays = loadNationalHolidays();
+    }
+    return holidays.getOrDefault(year, EMPTY);
+  }
+
+  private synchronized Map<Integer, YearBitSet> loadNationalHolidays() {
+    if (nationalHolidays != null) {
+      return nationalHolidays;
+    }
+    Map<Integer, YearBitSet> holidays = new HashMap<>();
+    resourceHolidays.forEach((year, bits) -> holidays.put(year, bits.copy()));
+    // company_id が NULL の上書きは祝日リソースの補正（臨時の祝日・法改正への即時対応）
+    jdbcTemplate.query(
+        "SELECT target_date, is_closed FROM m_calendar_overrides"
+            + " WHERE company_id IS NULL AND store_id IS NULL",
+        rs -> {
+          LocalDate date = rs.getDate("target_date").toLocalDate();
+          YearBitSet bits = holidays.computeIfAbsent(date.getYear(), year -> new YearBitSet());
+          if (rs.getBoolean("is_closed")) {
+            bits.set(date);
+          } else {
+            bits.clear(date);
+          }
+        });
+    Map<Integer, YearBitSet> loaded = Map.copyOf(holidays);
+    nationalHolidays = loaded;
+    return loaded;
+  }
+
+  private YearBitSet buildWorkdays(CompanyRules rules, int storeKey, int year) {
+    YearBitSet holidays = nationalHolidays(year);
+    int closedMask = rules.closedMask() | rules.storeClosedMask().getOrDefault(storeKey, 0);
+    YearBitSet workdays = new YearBitSet();
+    for (LocalDate date = LocalDate.of(year, 1, 1); date.getYear() == year; date = date.plusDays(1)) {
+      boolean closed =
+          (closedMask & CalendarView.dayMask(date.getDayOfWeek())) != 0
+              || (rules.closedOnNationalHolidays() && holidays.get(date));
+      if (!closed) {
+        workdays.set(date);
+      }
+    }
+    // 企業全体の上書き → 店舗の上書きの順に適用（店舗設定を優先）
+    applyOverrides(workdays, rules.overrides(), year);
+    applyOverrides(workdays, rules.storeOverrides().getOrDefault(storeKey, Map.of()), year);
+    return workdays;
+  }
+
+  private void applyOverrides(YearBitSet workdays, Map<LocalDate, Boolean> overrides, int year) {
+    overrides.forEach(
+        (date, closed) -> {
+          if (date.getYear() != year) {
+            return;
+          }
+          if (closed) {
+            workdays.clear(date);
+          } else {
+            workdays.set(date);
+          }
+        });
+  }
+
+  private CompanyRules loadRules(Integer companyId) {
+    Boolean closedOnHolidays =
+        jdbcTemplate.query(
+            "SELECT closed_on_national_holidays FROM m_companies WHERE id = ?",
+            rs -> rs.next() ? rs.getBoolean(1) : Boolean.FALSE,
+            companyId);
+    int[] masks = new int[2];
+    Map<Integer, Integer> storeClosedMask = new HashMap<>();
+    Map<Integer, Integer> storeLegalMask = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT store_id, day_of_week, is_legal_holiday FROM m_weekly_closures WHERE company_id = ?",
+        rs -> {
+          int bit = CalendarView.dayMask(DayOfWeek.of(rs.getInt("day_of_week")));
+          Integer storeId = rs.getObject("store_id", Integer.class);
+          boolean legal = rs.getBoolean("is_legal_holiday");
+          if (storeId == null) {
+            masks[0] |= bit;
+            masks[1] |= legal ? bit : 0;
+          } else {
+            storeClosedMask.merge(storeId, bit, (a, b) -> a | b);
+            if (legal) {
+              storeLegalMask.merge(storeId, bit, (a, b) -> a | b);
+            }
+          }
+        },
+        companyId);
+    Map<LocalDate, Boolean> overrides = new HashMap<>();
+    Map<Integer, Map<LocalDate, Boolean>> storeOverrides = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT store_id, target_date, is_closed FROM m_calendar_overrides WHERE company_id = ?",
+        rs -> {
+          Integer storeId = rs.getObject("store_id", Integer.class);
+          Map<LocalDate, Boolean> target =
+              storeId == null ? overrides : storeOverrides.computeIfAbsent(storeId, id -> new HashMap<>());
+          target.put(rs.getDate("target_date").toLocalDate(), rs.getBoolean("is_closed"));
+        },
+        companyId);
+    return new CompanyRules(
+        Boolean.TRUE.equals(closedOnHolidays),
+        masks[0],
+        masks[1],
+        Map.copyOf(storeClosedMask),
+        Map.copyOf(storeLegalMask),
+        Map.copyOf(overrides),
+        Map.copyOf(storeOverrides));
+  }
+
+  private static String loadHolidayResource(Map<Integer, YearBitSet> holidays) {
+    String version = "unknown";
+    ClassPathResource resource = new ClassPathResource(HOLIDAY_RESOURCE);
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.strip();
+        if (line.startsWith(VERSION_PREFIX)) {
+          version = line.substring(VERSION_PREFIX.length()).strip();
+          continue;
+        }
+        if (line.isEmpty() || line.startsWith("#") || line.startsWith("date,")) {
+          continue;
+        }
+        int comma = line.indexOf(',');
+        LocalDate date = LocalDate.parse(comma >= 0 ? line.substring(0, comma) : line);
+        holidays.computeIfAbsent(date.getYear(), year -> new YearBitSet()).set(date);
+      }
+    } catch (IOException ex) {
+      throw new IllegalStateException("祝日リソースの読み込みに失敗しました: " + HOLIDAY_RESOURCE, ex);
+    }
+    return version;
+  }
+
+  private record CompanyRules(
+      boolean closedOnNationalHolidays,
+      int closedMask,
+      int legalHolidayMask,
+      Map<Integer, Integer> storeClosedMask,
+      Map<Integer, Integer> storeLegalHolidayMask,
+      Map<LocalDate, Boolean> overrides,
+      Map<Integer, Map<LocalDate, Boolean>> storeOverrides) {}
+
+  private record CompanyCalendar(
+      CompanyRules rules, long loadedAt, Map<Integer, CalendarView> views) {}
+}
@@ -0,0 +1,166 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.security.FeatureSet;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 企業ごとの有効な機能を不変のビット列（{@link FeatureSet}）としてメモリに保持するサービスクラスです。
+ *
+ * <p>リクエスト単位の機能判定はマップ参照とビット判定のみで完了します。同一ノードでの切り替えは
+ * {@link FeatureTogglesChangedEvent}・{@link FeatureRolledOutEvent}で即時破棄し、
+ * 他ノードでの切り替えは m_company_features.updated_at の定期ポーリングで数秒以内に破棄します。
+ * ポーリングで検知できない行の削除はTTL経過で反映されます。</p>
+ */
+@Service
+public class CompanyFeatureRegistry {
+  private final JdbcTemplate jdbcTemplate;
+  private final FeatureCatalog featureCatalog;
+  private final long ttlNanos;
+  private final long commitGraceMillis;
+  private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * CompanyFeatureRegistryのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param featureCatalog 機能キー⇔機能IDの辞書
+   * @param ttlSeconds ビット列を再読込するまでの秒数
+   * @param commitGraceMillis 更新日時からコミットまでの想定最大遅延（ミリ秒）
+   */
+  public CompanyFeatureRegistry(
+      JdbcTemplate jdbcTemplate,
+      FeatureCatalog featureCatalog,
+      @Value("${paycanvas.cache.company-features-ttl-seconds:300}") long ttlSeconds,
+      @Value("${paycanvas.features.commit-grace-millis:5000}") long commitGraceMillis) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.featureCatalog = featureCatalog;
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    this.commitGraceMillis = commitGraceMillis;
+  }
+
+  /**
+   * 企業で機能が有効かを判定します。
+   *
+   * @param companyId 企業ID
+   * @param featureKey 機能キー
+   * @return 有効な場合true（企業・機能が存在しない場合はfalse）
+   */
+  public boolean isEnabled(Integer companyId, String featureKey) {
+    return isEnabled(companyId, featureCatalog.idOf(featureKey));
+  }
+
+  /**
+   * 企業で機能が有効かを判定します。
+   *
+   * @param companyId 企業ID
+   * @param featureId 機能ID
+   * @return 有効な場合true（企業が存在しない場合はfalse）
+   */
+  public boolean isEnabled(Integer companyId, int featureId) {
+    return companyId != null && featureId >= 0 && features(companyId).contains(featureId);
+  }
+
+  /**
+   * 企業の有効な機能IDの集合を返します。
+   *
+   * @param companyId 企業ID
+   * @return 機能IDの集合
+   */
+  public FeatureSet features(Integer companyId) {
+    Entry entry = entries.get(companyId);
+    if (entry != null && System.nanoTime() - entry.loadedAt() <= ttlNanos) {
+      return entry.features();
+    }
+    return load(companyId).features();
+  }
+
+  /**
+   * 指定企業のビット列を破棄します。次回判定時に再読込されます。
+   *
+   * @param companyId 企業ID
+   */
+  public void invalidate(Integer companyId) {
+    entries.remove(companyId);
+  }
+
+  /**
+   * 機能トグルの更新コミット後に該当企業のビット列を破棄します。
+   *
+   * @param event 機能トグル更新イベント
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTogglesChanged(FeatureTogglesChangedEvent event) {
+    invalidate(event.companyId());
+  }
+
+  /**
+   * 機能の一括展開のコミット後に対象企業のビット列を破棄します。
+   *
+   * @param event 機能の一括展開イベント
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRolledOut(FeatureRolledOutEvent event) {
+    event.companyIds().forEach(entries::remove);
+  }
+
+  /**
+   * 他ノードで切り替えられた企業のビット列を破棄します。
+   *
+   * <p>updated_at はトランザクション開始時刻のため、読込時刻が更新日時＋猶予より前のエントリを
+   * 破棄対象とし、更新のコミット前に読み込まれたビット列を取り残さないようにします。</p>
+   */
+  @Scheduled(fixedDelayString = "${paycanvas.features.poll-millis:2000}")
+  public void poll() {
+    if (entries.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.query(
+        """
+        SELECT company_id, MAX(updated_at) AS updated_at
+        FROM m_company_features
+        WHERE updated_at > CURRENT_TIMESTAMP - INTERVAL '1 minute'
+        GROUP BY company_id
+        """,
+        rs -> {
+          Integer companyId = rs.getInt("company_id");
+          long changedAt = rs.getTimestamp("updated_at").getTime();
+          entries.computeIfPresent(
+              companyId,
+              (id, entry) -> entry.loadedAtDb() <= changedAt + commitGraceMillis ? null : entry);
+        });
+  }
+
+  private Entry load(Integer companyId) {
+    Entry loaded =
+        jdbcTemplate.queryForObject(
+            """
+            SELECT CURRENT_TIMESTAMP AS loaded_at,
+                   ARRAY(
+                       SELECT feature_id FROM m_company_features
+                       WHERE company_id = ? AND is_enabled) AS feature_ids
+            """,
+            (rs, rowNum) -> {
+              Array featureIds = rs.getArray("feature_ids");
+              List<Integer> ids =
+                  featureIds != null ? Arrays.asList((Integer[]) featureIds.getArray()) : List.of();
+              Timestamp loadedAt = rs.getTimestamp("loaded_at");
+              return new Entry(FeatureSet.of(ids), loadedAt.getTime(), System.nanoTime());
+            },
+            companyId);
+    entries.put(companyId, loaded);
+    return loaded;
+  }
+
+  private record Entry(FeatureSet features, long loadedAtDb, long loadedAt) {}
+}
@@ -5,6 +5,8 @@ import com.paycanvas.api.model.PersonalMetric;
 import com.paycanvas.api.model.StoreMetric;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -14,39 +16,53 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class DailyMetricsService {
   private final JdbcTemplate jdbcTemplate;
+  private final StoreNameCache storeNameCache;
 
-  public DailyMetricsService(JdbcTemplate jdbcTemplate) {
+  public DailyMetricsService(JdbcTemplate jdbcTemplate, StoreNameCache storeNameCache) {
     this.jdbcTemplate = jdbcTemplate;
+    this.storeNameCache = storeNameCache;
   }
 
+  // 日次テーブルは月次パーティションのため、日付列の半開区間 [月初, 翌月初) で絞り込みプルーニングを効かせる
   @Transactional(readOnly = true)
-  public List<DailyAttendance> fetchAttendances() {
+  public List<DailyAttendance> fetchAttendances(YearMonth month) {
     String sql =
-        "SELECT a.id, a.work_date, e.name AS staff_name, a.store_name, a.check_in, a.check_out,"
-            + " a.work_hours, a.tardy_minutes, a.status"
+        "SELECT a.id, a.work_date, e.name AS staff_name, a.store_id, a.check_in, a.check_out,"
+            + " a.work_hours, a.tardy_minutes, a.status, a.anomaly_flags"
             + " FROM t_daily_attendances a"
             + " JOIN m_employees e ON e.id = a.employee_id"
+            + " WHERE a.work_date >= ? AND a.work_date < ?"
             + " ORDER BY a.work_date DESC";
-    return jdbcTemplate.query(sql, dailyAttendanceMapper());
+    return jdbcTemplate.query(sql, dailyAttendanceMapper(), monthStart(month), nextMonthStart(month));
   }
 
   @Transactional(readOnly = true)
-  public List<StoreMetric> fetchStoreMetrics() {
+  public List<StoreMetric> fetchStoreMetrics(YearMonth month) {
     String sql =
-        "SELECT id, metric_date, store_name, gross_sales, discount_total, total_hours"
+        "SELECT id, metric_date, store_id, gross_sales, discount_total, total_hours"
             + " FROM t_daily_store_metrics"
+            + " WHERE metric_date >= ? AND metric_date < ?"
             + " ORDER BY metric_date DESC";
-    return jdbcTemplate.query(sql, storeMetricMapper());
+    return jdbcTemplate.query(sql, storeMetricMapper(), monthStart(month), nextMonthStart(month));
   }
 
   @Transactional(readOnly = true)
-  public List<PersonalMetric> fetchPersonalMetrics() {
+  public List<PersonalMetric> fetchPersonalMetrics(YearMonth month) {
     String sql =
         "SELECT p.id, p.metric_date, e.name AS staff_name, p.service_sales, p.product_sales"
             + " FROM t_daily_personal_metrics p"
             + " JOIN m_employees e ON e.id = p.employee_id"
+            + " WHERE p.metric_date >= ? AND p.metric_date < ?"
             + " ORDER BY p.metric_date DESC";
-    return jdbcTemplate.query(sql, personalMetricMapper());
+    return jdbcTemplate.query(sql, personalMetricMapper(), monthStart(month), nextMonthStart(month));
+  }
+
+  private LocalDate monthStart(YearMonth month) {
+    return month.atDay(1);
+  }
+
+  private LocalDate nextMonthStart(YearMonth month) {
+    return month.plusMonths(1).atDay(1);
   }
 
   private RowMapper<DailyAttendance> dailyAttendanceMapper() {
@@ -57,12 +73,14 @@ public class DailyMetricsService {
             String.valueOf(rs.getInt("id")),
             rs.getDate("work_date").toString(),
             rs.getString("staff_name"),
-            rs.getString("store_name"),
+            rs.getInt("store_id"),
+            storeNameCache.nameOf(rs.getInt("store_id")),
             rs.getTime("check_in") != null ? rs.getTime("check_in").toString() : "-",
             rs.getTime("check_out") != null ? rs.getTime("check_out").toString() : "-",
             rs.getInt("work_hours"),
             rs.getInt("tardy_minutes"),
-            rs.getString("status"));
+            rs.getString("status"),
+            rs.getInt("anomaly_flags"));
       }
     };
   }
@@ -74,7 +92,8 @@ public class DailyMetricsService {
         return new StoreMetric(
             String.valueOf(rs.getInt("id")),
             rs.getDate("metric_date").toString(),
-            rs.getString("store_name"),
+            rs.getInt("store_id"),
+            storeNameCache.nameOf(rs.getInt("store_id")),
             rs.getInt("gross_sales"),
             rs.getInt("discount_total"),
             rs.getInt("total_hours"));
@@ -0,0 +1,206 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.model.superadmin.DashboardRecomputeStats;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * ダッシュボード集計を全企業について定期的に再計算するサービスクラスです（毎時）。
+ *
+ * <p>元データの変更で再集計対象（stale）になった企業・月と、当月・前月のスナップショットが
+ * 未作成の稼働中企業のみを対象とし、並列数を制限した専用スレッドで企業単位に再計算します。
+ * 企業ごとに時間予算を設け、超過した場合は残りの月を次回に持ち越します。
+ * これにより、日中のダッシュボード表示で重い集計が発生しないようにします。</p>
+ */
+@Service
+public class DashboardRecomputeService {
+  private static final Logger log = LoggerFactory.getLogger(DashboardRecomputeService.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DashboardSummaryService dashboardSummaryService;
+  private final ExecutorService executor;
+  private final long tenantBudgetNanos;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private volatile DashboardRecomputeStats lastRun;
+
+  /**
+   * DashboardRecomputeServiceのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param dashboardSummaryService ダッシュボード集計サービス
+   * @param parallelism 同時に再計算する企業数の上限
+   * @param tenantBudgetSeconds 1企業あたりの再計算時間の予算（秒）
+   */
+  public DashboardRecomputeService(
+      JdbcTemplate jdbcTemplate,
+      DashboardSummaryService dashboardSummaryService,
+      @Value("${paycanvas.dashboard.recompute-parallelism:4}") int parallelism,
+      @Value("${paycanvas.dashboard.recompute-tenant-budget-seconds:30}") long tenantBudgetSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.dashboardSummaryService = dashboardSummaryService;
+    this.tenantBudgetNanos = Duration.ofSeconds(tenantBudgetSeconds).toNanos();
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, parallelism),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "dashboard-recompute-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * 元データが変更された企業・月のダッシュボード集計を再計算します。
+   * 前回の実行が終わっていない場合は何もしません。
+   *
+   * @return 実行結果（前回の実行中だった場合は前回の結果）
+   */
+  @Scheduled(cron = "${paycanvas.dashboard.recompute-cron:0 5 * * * *}")
+  public DashboardRecomputeStats recomputeChanged() {
+    if (!running.compareAndSet(false, true)) {
+      log.warn("前回のダッシュボード再計算が実行中のためスキップしました");
+      return lastRun;
+    }
+    try {
+      LocalDateTime startedAt = LocalDateTime.now();
+      long start = System.nanoTime();
+      Map<Integer, List<YearMonth>> targets = findTargets();
+
+      List<Future<TenantResult>> futures = new ArrayList<>(targets.size());
+      targets.forEach(
+          (companyId, months) ->
+              futures.add(executor.submit(() -> recomputeTenant(companyId, months))));
+
+      int recomputedTenants = 0;
+      int recomputedMonths = 0;
+      int overBudget = 0;
+      int failed = 0;
+      for (Future<TenantResult> future : futures) {
+        try {
+          TenantResult result = future.get();
+          recomputedMonths += result.recomputedMonths();
+          if (result.overBudget()) {
+            overBudget++;
+          } else {
+            recomputedTenants++;
+          }
+        } catch (ExecutionException ex) {
+          failed++;
+          log.error("ダッシュボード再計算に失敗しました", ex.getCause());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          failed++;
+          break;
+        }
+      }
+
+      DashboardRecomputeStats stats =
+          new DashboardRecomputeStats(
+              startedAt,
+              Duration.ofNanos(System.nanoTime() - start).toMillis(),
+              targets.size(),
+              recomputedTenants,
+              recomputedMonths,
+              overBudget,
+              failed);
+      lastRun = stats;
+      log.info(
+          "ダッシュボード再計算: {}ms 対象企業={} 完了={} 再計算月数={} 予算超過={} 失敗={}",
+          stats.durationMillis(),
+          stats.changedTenants(),
+          stats.recomputedTenants(),
+          stats.recomputedMonths(),
+          stats.overBudgetTenants(),
+          stats.failedTenants());
+      return stats;
+    } finally {
+      running.set(false);
+    }
+  }
+
+  /**
+   * 直近の実行結果を返します。
+   *
+   * @return 実行結果（未実行の場合はnull）
+   */
+  public DashboardRecomputeStats lastRun() {
+    return lastRun;
+  }
+
+  /**
+   * 再計算用のスレッドを停止します。
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private TenantResult recomputeTenant(Integer companyId, List<YearMonth> months) {
+    long start = System.nanoTime();
+    int recomputed = 0;
+    for (YearMonth month : months) {
+      if (System.nanoTime() - start > tenantBudgetNanos) {
+        // 残りの月は stale のまま次回に持ち越す
+        log.warn(
+            "企業ID={}のダッシュボード再計算が時間予算を超過しました（残り{}か月）",
+            companyId,
+            months.size() - recomputed);
+        return new TenantResult(recomputed, true);
+      }
+      dashboardSummaryService.recompute(companyId, month);
+      recomputed++;
+    }
+    return new TenantResult(recomputed, false);
+  }
+
+  private Map<Integer, List<YearMonth>> findTargets() {
+    YearMonth current = YearMonth.now();
+    Map<Integer, List<YearMonth>> targets = new LinkedHashMap<>();
+    // 企業内では新しい月から再計算し、時間予算の超過時も当月を優先する
+    jdbcTemplate.query(
+        "SELECT s.company_id, s.target_month"
+            + " FROM t_dashboard_summaries s"
+            + " JOIN m_companies c ON c.id = s.company_id"
+            + " WHERE s.stale AND c.status = 'ACTIVE'"
+            + " UNION"
+            + " SELECT c.id, m.target_month"
+            + " FROM m_companies c"
+            + " CROSS JOIN (VALUES (?), (?)) AS m(target_month)"
+            + " WHERE c.status = 'ACTIVE'"
+            + " AND NOT EXISTS ("
+            + "   SELECT 1 FROM t_dashboard_summaries s"
+            + "   WHERE s.company_id = c.id AND s.target_month = m.target_month)"
+            + " ORDER BY 1, 2 DESC",
+        rs -> {
+          targets
+              .computeIfAbsent(rs.getInt(1), id -> new ArrayList<>())
+              .add(YearMonth.parse(rs.getString(2).trim()));
+        },
+        current.toString(),
+        current.minusMonths(1).toString());
+    return targets;
+  }
+
+  private record TenantResult(int recomputedMonths, boolean overBudget) {}
+}
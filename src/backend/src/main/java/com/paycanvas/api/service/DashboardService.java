@@ -1,88 +1,188 @@
 package com.paycanvas.api.service;
 
 import com.paycanvas.api.model.Announcement;
+import com.paycanvas.api.model.DashboardTrendPoint;
 import com.paycanvas.api.model.PendingTask;
 import com.paycanvas.api.model.SummaryMetric;
+import com.paycanvas.api.service.dashboard.DashboardSummarySnapshot;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
-import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class DashboardService {
-  private final JdbcTemplate jdbcTemplate;
-  private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.JAPAN);
+public class DashboardService extends CustomService {
+  private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
 
-  public DashboardService(JdbcTemplate jdbcTemplate) {
-    this.jdbcTemplate = jdbcTemplate;
+  private final DashboardSummaryService dashboardSummaryService;
+  private final PendingTaskService pendingTaskService;
+  private final ExecutorService dashboardExecutor;
+  private final long deadlineMillis;
+
+  public DashboardService(
+      DashboardSummaryService dashboardSummaryService,
+      PendingTaskService pendingTaskService,
+      @Qualifier("dashboardExecutor") ExecutorService dashboardExecutor,
+      @Value("${paycanvas.dashboard.deadline-millis:800}") long deadlineMillis) {
+    this.dashboardSummaryService = dashboardSummaryService;
+    this.pendingTaskService = pendingTaskService;
+    this.dashboardExecutor = dashboardExecutor;
+    this.deadlineMillis = deadlineMillis;
   }
 
-  @Transactional(readOnly = true)
-  public List<SummaryMetric> fetchSummaryMetrics() {
-    BigDecimal laborCostValue =
-        defaultDecimal(
-            jdbcTemplate.queryForObject(
-                "SELECT COALESCE(SUM(gross_pay),0) FROM t_monthly_payrolls", BigDecimal.class));
-    BigDecimal totalSalesValue =
-        defaultDecimal(
-            jdbcTemplate.queryForObject(
-                "SELECT COALESCE(SUM(gross_sales),0) FROM t_daily_store_metrics", BigDecimal.class));
-    BigDecimal productRatioValue =
-        defaultDecimal(
-            jdbcTemplate.queryForObject(
-                "SELECT CASE WHEN SUM(service_sales)+SUM(product_sales) = 0 THEN 0"
-                    + " ELSE ROUND(SUM(product_sales)::numeric * 100 / (SUM(service_sales)+SUM(product_sales)), 1)"
-                    + " END FROM t_daily_personal_metrics",
-                BigDecimal.class));
-
-    String totalLaborCost = currencyFormat.format(laborCostValue);
-    String totalSales = currencyFormat.format(totalSalesValue);
-    String productRatio = productRatioValue + "%";
-    long pendingAttendance =
-        jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM t_daily_attendances WHERE status <> '承認済'",
-            Long.class);
+  /**
+   * ダッシュボード表示に必要な情報（メトリクス・タスク・お知らせ）を並列に取得します。
+   *
+   * <p>各部分は専用スレッドプール上で個別のDB接続により実行し、全体の所要時間は最も遅い部分に
+   * 揃います。期限内に取得できなかった部分は空リストとし、キー名を unavailable に列挙します。</p>
+   *
+   * @return ダッシュボード情報のマップ（キー: metrics, tasks, announcements, unavailable）
+   */
+  public Map<String, List<?>> fetchDashboard() {
+    // 企業IDはリクエストスレッドのセキュリティコンテキストから取得してから各スレッドへ渡す
+    Integer companyId = getCurrentCompanyId();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+    Future<List<SummaryMetric>> metrics = submit(() -> fetchSummaryMetrics(companyId));
+    Future<List<PendingTask>> tasks = submit(() -> fetchPendingTasks(companyId));
+    Future<List<Announcement>> announcements = submit(this::fetchAnnouncements);
 
-    return List.of(
-        new SummaryMetric("laborCost", "総人件費 (今月)", totalLaborCost, "+5.2% vs 先月", false),
-        new SummaryMetric("sales", "総売上 (今月)", totalSales, "+8.4% vs 先月", true),
-        new SummaryMetric("product", "商品販売率", productRatio, "+1.2pt", true),
-        new SummaryMetric("attendance", "勤怠未承認", pendingAttendance + "件", "-3件", pendingAttendance == 0));
+    List<String> unavailable = new ArrayList<>();
+    Map<String, List<?>> result = new LinkedHashMap<>();
+    result.put("metrics", await("metrics", metrics, deadline, unavailable));
+    result.put("tasks", await("tasks", tasks, deadline, unavailable));
+    result.put("announcements", await("announcements", announcements, deadline, unavailable));
+    result.put("unavailable", List.copyOf(unavailable));
+    return result;
   }
 
-  @Transactional(readOnly = true)
-  public List<PendingTask> fetchPendingTasks() {
+  // 集計スナップショットの参照のみ（再集計が必要な場合は集計サービス側で実行・保存する）
+  // 前月比は当月・前月のスナップショット同士で算出し、表示のたびに元テーブルを集計しない
+  public List<SummaryMetric> fetchSummaryMetrics(Integer companyId) {
+    NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.JAPAN);
+    YearMonth month = YearMonth.now();
+    DashboardSummarySnapshot summary = dashboardSummaryService.get(companyId, month);
+    DashboardSummarySnapshot previous = dashboardSummaryService.get(companyId, month.minusMonths(1));
+
+    String totalLaborCost = currencyFormat.format(summary.laborCost());
+    String totalSales = currencyFormat.format(summary.totalSales());
+    String productRatio = summary.productRatio() + "%";
+    long pendingAttendance = summary.pendingAttendance();
+    BigDecimal ratioDelta = summary.productRatio().subtract(previous.productRatio());
+    long pendingDelta = pendingAttendance - previous.pendingAttendance();
+
     return List.of(
-        new PendingTask(
-            "t1",
-            "4月度勤怠未入力の確認",
-            "要確認の勤怠が" + pendingAttendanceCount() + "件あります",
-            Optional.of(LocalDate.of(2024, 4, 25))),
-        new PendingTask(
-            "t2",
-            "給与テーブル改定の承認",
-            "新しい週休3日プランの承認が必要です",
-            Optional.empty()));
+        new SummaryMetric(
+            "laborCost",
+            "総人件費 (今月)",
+            totalLaborCost,
+            percentChange(summary.laborCost(), previous.laborCost()),
+            summary.laborCost() <= previous.laborCost()),
+        new SummaryMetric(
+            "sales",
+            "総売上 (今月)",
+            totalSales,
+            percentChange(summary.totalSales(), previous.totalSales()),
+            summary.totalSales() >= previous.totalSales()),
+        new SummaryMetric(
+            "product",
+            "商品販売率",
+            productRatio,
+            signed(ratioDelta) + "pt",
+            ratioDelta.signum() >= 0),
+        new SummaryMetric(
+            "attendance",
+            "勤怠未承認",
+            pendingAttendance + "件",
+            (pendingDelta > 0 ? "+" : "") + pendingDelta + "件",
+            pendingAttendance == 0 || pendingDelta < 0));
+  }
+
+  /**
+   * 直近の月別推移を返します。保存済みの月次スナップショットのみを参照します。
+   *
+   * @param months 月数（当月を含む）
+   * @return 月別推移（古い順）
+   */
+  public List<DashboardTrendPoint> fetchTrend(int months) {
+    List<DashboardSummarySnapshot> history =
+        dashboardSummaryService.history(getCurrentCompanyId(), YearMonth.now(), months);
+    List<DashboardTrendPoint> trend = new ArrayList<>(history.size());
+    for (DashboardSummarySnapshot snapshot : history) {
+      trend.add(
+          new DashboardTrendPoint(
+              snapshot.month().toString(),
+              snapshot.laborCost(),
+              snapshot.totalSales(),
+              snapshot.productRatio(),
+              snapshot.pendingAttendance()));
+    }
+    return trend;
+  }
+
+  public List<PendingTask> fetchPendingTasks(Integer companyId) {
+    return pendingTaskService.tasks(companyId);
   }
 
-  @Transactional(readOnly = true)
   public List<Announcement> fetchAnnouncements() {
     return List.of(
         new Announcement("a1", "KING OF TIME API の仕様変更に伴う接続テストが予定されています", LocalDate.of(2024, 4, 8)),
         new Announcement("a2", "弥生給与向けCSVフォーマットを4月15日に更新予定", LocalDate.of(2024, 4, 5)));
   }
 
-  private long pendingAttendanceCount() {
-    return jdbcTemplate.queryForObject(
-        "SELECT COUNT(*) FROM t_daily_attendances WHERE status <> '承認済'", Long.class);
+  private <T> Future<T> submit(Callable<T> task) {
+    try {
+      return dashboardExecutor.submit(task);
+    } catch (RejectedExecutionException ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+  }
+
+  private <T> List<T> await(
+      String part, Future<List<T>> future, long deadline, List<String> unavailable) {
+    try {
+      return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      log.warn("ダッシュボードの{}が期限内に取得できませんでした", part);
+    } catch (ExecutionException ex) {
+      log.error("ダッシュボードの{}の取得に失敗しました", part, ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    unavailable.add(part);
+    return List.of();
+  }
+
+  private String percentChange(long current, long previous) {
+    if (previous == 0) {
+      return "- vs 先月";
+    }
+    BigDecimal change =
+        BigDecimal.valueOf((current - previous) * 100)
+            .divide(BigDecimal.valueOf(previous), 1, RoundingMode.HALF_UP);
+    return signed(change) + "% vs 先月";
   }
 
-  private BigDecimal defaultDecimal(BigDecimal value) {
-    return value != null ? value : BigDecimal.ZERO;
+  private String signed(BigDecimal value) {
+    return (value.signum() >= 0 ? "+" : "") + value.toPlainString();
   }
 }
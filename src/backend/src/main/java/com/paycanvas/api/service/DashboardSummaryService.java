@@ -0,0 +1,263 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.service.dashboard.DashboardDataChangedEvent;
+import com.paycanvas.api.service.dashboard.DashboardSummarySnapshot;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 企業・月単位のダッシュボード集計スナップショットを管理するサービスクラスです。
+ *
+ * <p>スナップショットはメモリと t_dashboard_summaries の2段で保持し、ダッシュボード表示は
+ * 通常メモリ参照のみ、TTL経過後も主キー参照1回で完了します。元データの更新は
+ * {@link DashboardDataChangedEvent}で通知され、該当月を再集計対象（stale）にします。
+ * 勤怠未承認件数は当月も含めて対象月の勤務日に限定した件数で、勤怠の承認・取込時の
+ * 通知による再集計で更新します。</p>
+ *
+ * <p>集計は呼び出し元のトランザクションに参加しないよう、読み取り専用トランザクションの外から
+ * 呼び出してください。</p>
+ */
+@Service
+public class DashboardSummaryService {
+  private final JdbcTemplate jdbcTemplate;
+  private final long ttlNanos;
+  private final Map<SummaryKey, Entry> snapshots = new ConcurrentHashMap<>();
+
+  /**
+   * DashboardSummaryServiceのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param ttlSeconds メモリ上のスナップショットを再読込するまでの秒数
+   */
+  public DashboardSummaryService(
+      JdbcTemplate jdbcTemplate,
+      @Value("${paycanvas.cache.dashboard-summary-ttl-seconds:60}") long ttlSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+  }
+
+  /**
+   * 指定企業・月の集計スナップショットを返します。
+   * 保存済みのスナップショットがない、または再集計対象の場合のみ集計します。
+   *
+   * @param companyId 企業ID
+   * @param month 対象月
+   * @return 集計スナップショット
+   */
+  public DashboardSummarySnapshot get(Integer companyId, YearMonth month) {
+    SummaryKey key = new SummaryKey(companyId, month);
+    Entry entry = snapshots.get(key);
+    if (entry != null && System.nanoTime() - entry.loadedAt() <= ttlNanos) {
+      return entry.snapshot();
+    }
+    DashboardSummarySnapshot snapshot = loadStored(companyId, month);
+    if (snapshot == null) {
+      return recompute(companyId, month);
+    }
+    snapshots.put(key, new Entry(snapshot, System.nanoTime()));
+    return snapshot;
+  }
+
+  /**
+   * 指定月までの直近の集計スナップショットを古い順に返します。
+   * 保存済みの月は1回のクエリでまとめて読み込み、未集計・再集計対象の月のみ集計します。
+   *
+   * @param companyId 企業ID
+   * @param lastMonth 最終月（この月を含む）
+   * @param months 月数
+   * @return 月ごとの集計スナップショット
+   */
+  public List<DashboardSummarySnapshot> history(Integer companyId, YearMonth lastMonth, int months) {
+    YearMonth firstMonth = lastMonth.minusMonths(months - 1L);
+    Map<YearMonth, DashboardSummarySnapshot> stored = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT target_month, labor_cost, total_sales, service_sales, product_sales,"
+            + " pending_attendance, computed_at"
+            + " FROM t_dashboard_summaries"
+            + " WHERE company_id = ? AND target_month >= ? AND target_month <= ? AND NOT stale",
+        rs -> {
+          YearMonth month = YearMonth.parse(rs.getString("target_month"));
+          stored.put(month, mapSnapshot(rs, companyId, month));
+        },
+        companyId,
+        firstMonth.toString(),
+        lastMonth.toString());
+    List<DashboardSummarySnapshot> history = new ArrayList<>(months);
+    for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+      DashboardSummarySnapshot snapshot = stored.get(month);
+      if (snapshot == null) {
+        snapshot = get(companyId, month);
+      }
+      history.add(snapshot);
+    }
+    return history;
+  }
+
+  /**
+   * 指定企業・月の集計を元データから再計算し、スナップショットを更新します。
+   *
+   * @param companyId 企業ID
+   * @param month 対象月
+   * @return 再計算したスナップショット
+   */
+  public DashboardSummarySnapshot recompute(Integer companyId, YearMonth month) {
+    LocalDate monthStart = month.atDay(1);
+    LocalDate nextMonthStart = month.plusMonths(1).atDay(1);
+    Long laborCost =
+        jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(p.gross_pay), 0) FROM t_monthly_payrolls p"
+                + " JOIN m_employees e ON e.id = p.employee_id"
+                + " WHERE e.company_id = ? AND p.target_year_month = ?",
+            Long.class,
+            companyId,
+            month.toString());
+    // 日次テーブルは日付列の半開区間で絞り込み、対象月のパーティションのみを走査させる
+    Long totalSales =
+        jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(gross_sales), 0) FROM t_daily_store_metrics"
+                + " WHERE company_id = ? AND metric_date >= ? AND metric_date < ?",
+            Long.class,
+            companyId,
+            monthStart,
+            nextMonthStart);
+    long[] personalSales = new long[2];
+    jdbcTemplate.query(
+        "SELECT COALESCE(SUM(p.service_sales), 0) AS service_sales,"
+            + " COALESCE(SUM(p.product_sales), 0) AS product_sales"
+            + " FROM t_daily_personal_metrics p"
+            + " JOIN m_employees e ON e.id = p.employee_id"
+            + " WHERE e.company_id = ? AND p.metric_date >= ? AND p.metric_date < ?",
+        rs -> {
+          personalSales[0] = rs.getLong("service_sales");
+          personalSales[1] = rs.getLong("product_sales");
+        },
+        companyId,
+        monthStart,
+        nextMonthStart);
+    // 勤怠未承認件数は対象月の勤務日に限定する（過去月の値が再集計日の件数にならないように）
+    Long pending =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM t_daily_attendances"
+                + " WHERE company_id = ? AND work_date >= ? AND work_date < ?"
+                + " AND status <> '" + AttendanceApprovalService.STATUS_APPROVED + "'",
+            Long.class,
+            companyId,
+            monthStart,
+            nextMonthStart);
+
+    DashboardSummarySnapshot snapshot =
+        new DashboardSummarySnapshot(
+            companyId,
+            month,
+            laborCost != null ? laborCost : 0L,
+            totalSales != null ? totalSales : 0L,
+            personalSales[0],
+            personalSales[1],
+            pending != null ? pending : 0L,
+            LocalDateTime.now());
+    jdbcTemplate.update(
+        "INSERT INTO t_dashboard_summaries (company_id, target_month, labor_cost, total_sales,"
+            + " service_sales, product_sales, pending_attendance, stale, computed_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, ?)"
+            + " ON CONFLICT (company_id, target_month) DO UPDATE"
+            + " SET labor_cost = EXCLUDED.labor_cost, total_sales = EXCLUDED.total_sales,"
+            + " service_sales = EXCLUDED.service_sales, product_sales = EXCLUDED.product_sales,"
+            + " pending_attendance = EXCLUDED.pending_attendance, stale = FALSE,"
+            + " computed_at = EXCLUDED.computed_at",
+        companyId,
+        month.toString(),
+        snapshot.laborCost(),
+        snapshot.totalSales(),
+        snapshot.serviceSales(),
+        snapshot.productSales(),
+        snapshot.pendingAttendance(),
+        Timestamp.valueOf(snapshot.computedAt()));
+    snapshots.put(new SummaryKey(companyId, month), new Entry(snapshot, System.nanoTime()));
+    return snapshot;
+  }
+
+  /**
+   * 指定企業・月のスナップショットを再集計対象にします。
+   * 他ノードのメモリ上のスナップショットはTTL経過後の再読込で破棄されます。
+   *
+   * @param companyId 企業ID
+   * @param month 対象月
+   */
+  public void markStale(Integer companyId, YearMonth month) {
+    snapshots.remove(new SummaryKey(companyId, month));
+    jdbcTemplate.update(
+        "UPDATE t_dashboard_summaries SET stale = TRUE WHERE company_id = ? AND target_month = ?",
+        companyId,
+        month.toString());
+  }
+
+  /**
+   * 元データ更新イベントを受け、該当月を再集計対象にします。
+   *
+   * <p>stale フラグは更新元のトランザクション内（コミット直前）で更新し、元データの変更と
+   * 同時にコミットされるようにします。コミット後の処理では接続がトランザクション外となり、
+   * 更新が確定しないためです。</p>
+   *
+   * @param event 元データ更新イベント
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void onDataChanged(DashboardDataChangedEvent event) {
+    markStale(event.companyId(), event.month());
+  }
+
+  /**
+   * 元データ更新のコミット後に、該当月のメモリ上のスナップショットを再度破棄します。
+   * コミット前に他のリクエストが旧データで再読込したスナップショットを取り残さないためです。
+   *
+   * @param event 元データ更新イベント
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataCommitted(DashboardDataChangedEvent event) {
+    snapshots.remove(new SummaryKey(event.companyId(), event.month()));
+  }
+
+  private DashboardSummarySnapshot loadStored(Integer companyId, YearMonth month) {
+    List<DashboardSummarySnapshot> stored =
+        jdbcTemplate.query(
+            "SELECT labor_cost, total_sales, service_sales, product_sales, pending_attendance,"
+                + " computed_at"
+                + " FROM t_dashboard_summaries"
+                + " WHERE company_id = ? AND target_month = ? AND NOT stale",
+            (rs, rowNum) -> mapSnapshot(rs, companyId, month),
+            companyId,
+            month.toString());
+    return stored.isEmpty() ? null : stored.get(0);
+  }
+
+  private DashboardSummarySnapshot mapSnapshot(ResultSet rs, Integer companyId, YearMonth month)
+      throws SQLException {
+    return new DashboardSummarySnapshot(
+        companyId,
+        month,
+        rs.getLong("labor_cost"),
+        rs.getLong("total_sales"),
+        rs.getLong("service_sales"),
+        rs.getLong("product_sales"),
+        rs.getLong("pending_attendance"),
+        rs.getTimestamp("computed_at").toLocalDateTime());
+  }
+
+  private record SummaryKey(Integer companyId, YearMonth month) {}
+
+  private record Entry(DashboardSummarySnapshot snapshot, long loadedAt) {}
+}
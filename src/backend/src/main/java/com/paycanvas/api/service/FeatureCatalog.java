@@ -0,0 +1,107 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.security.FeatureSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 機能キー⇔機能ID（m_features.id）の辞書をメモリに保持するキャッシュです。
+ *
+ * <p>アクセストークンの機能クレームは機能IDのビット列（{@link FeatureSet}）で表すため、
+ * 発行時のキー→ID変換と、判定時のキー→ID解決に使用します。機能マスタは追加のみで
+ * IDを再利用しない前提のため、未登録のキーを参照した場合のみ再読込します。</p>
+ */
+@Component
+public class FeatureCatalog {
+  private final JdbcTemplate jdbcTemplate;
+  private final long ttlNanos;
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * FeatureCatalogのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param ttlSeconds キャッシュの有効期間（秒）
+   */
+  public FeatureCatalog(
+      JdbcTemplate jdbcTemplate,
+      @Value("${paycanvas.cache.feature-catalog-ttl-seconds:300}") long ttlSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+  }
+
+  /**
+   * 機能キーから機能IDを解決します。
+   *
+   * @param featureKey 機能キー
+   * @return 機能ID（未登録の場合は-1）
+   */
+  public int idOf(String featureKey) {
+    if (featureKey == null) {
+      return -1;
+    }
+    Integer id = current().ids().get(featureKey);
+    if (id == null) {
+      // 直前に登録された機能の可能性があるため一度だけ再読込する
+      id = reload().ids().get(featureKey);
+    }
+    return id != null ? id : -1;
+  }
+
+  /**
+   * 機能キーの一覧を機能IDの集合へ変換します。未登録のキーは無視します。
+   *
+   * @param featureKeys 機能キーの一覧
+   * @return 機能IDの集合
+   */
+  public FeatureSet toFeatureSet(Collection<String> featureKeys) {
+    if (featureKeys.isEmpty()) {
+      return FeatureSet.empty();
+    }
+    List<Integer> ids = new ArrayList<>(featureKeys.size());
+    for (String featureKey : featureKeys) {
+      int id = idOf(featureKey);
+      if (id >= 0) {
+        ids.add(id);
+      }
+    }
+    return FeatureSet.of(ids);
+  }
+
+  /**
+   * キャッシュを破棄します。次回参照時に再読込されます。
+   */
+  public void invalidate() {
+    snapshot = null;
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null || System.nanoTime() - current.loadedAt() > ttlNanos) {
+      current = reload();
+    }
+    return current;
+  }
+
+  private synchronized Snapshot reload() {
+    Map<String, Integer> ids = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT id, feature_key FROM m_features",
+        rs -> {
+          ids.put(rs.getString("feature_key"), rs.getInt("id"));
+        });
+    Snapshot loaded = new Snapshot(Map.copyOf(ids), System.nanoTime());
+    snapshot = loaded;
+    return loaded;
+  }
+
+  private record Snapshot(Map<String, Integer> ids, long loadedAt) {}
+}
@@ -0,0 +1,11 @@
+package com.paycanvas.api.service;
+
+import java.util.List;
+
+/**
+ * 機能が複数企業へ一括展開されたことを通知するイベントです。
+ * トランザクションのコミット後に、対象企業の機能トグル・機能判定のキャッシュを破棄します。
+ *
+ * @param companyIds 設定が変わった企業IDのリスト
+ */
+public record FeatureRolledOutEvent(List<Integer> companyIds) {}
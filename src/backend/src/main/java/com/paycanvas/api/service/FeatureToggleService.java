@@ -4,51 +4,85 @@ import com.paycanvas.api.entity.Company;
 import com.paycanvas.api.entity.CompanyFeature;
 import com.paycanvas.api.entity.Feature;
 import com.paycanvas.api.model.FeatureToggle;
+import com.paycanvas.api.model.superadmin.FeatureRolloutRequest;
+import com.paycanvas.api.model.superadmin.FeatureRolloutResult;
 import com.paycanvas.api.repository.CompanyFeatureRepository;
 import com.paycanvas.api.repository.CompanyRepository;
 import com.paycanvas.api.repository.FeatureRepository;
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.server.ResponseStatusException;
 
+/**
+ * 機能トグルの一覧取得と更新を担当するサービスクラスです。
+ *
+ * <p>一覧は機能ごとの有効テナント数と対象企業の有効状態を1回の集計クエリで取得し、
+ * 企業単位の不変スナップショットとしてメモリに保持します。更新時はコミット後に
+ * 更新時点の一覧でスナップショットを丸ごと置き換え、有効テナント数が変わる他企業の
+ * スナップショットは破棄します。他ノードでの更新はTTL経過で反映されます。</p>
+ *
+ * <p>複数企業への一括展開は対象企業の抽出から UPSERT・件数集計までを1つのSQL文で行い、
+ * 数百企業への展開も1リクエストで完了させます。</p>
+ */
 @Service
 public class FeatureToggleService {
   private static final int DEFAULT_COMPANY_ID = 1;
 
+  /** 機能ごとの有効テナント数と、指定企業での有効状態を集計するSQL */
+  private static final String FEATURE_TOGGLES_SQL =
+      """
+      SELECT f.feature_key, f.name, f.description,
+             COUNT(cf.id) FILTER (WHERE cf.is_enabled) AS enabled_tenants,
+             COALESCE(BOOL_OR(cf.is_enabled) FILTER (WHERE cf.company_id = ?), FALSE) AS enabled
+      FROM m_features f
+      LEFT JOIN m_company_features cf ON cf.feature_id = f.id
+      GROUP BY f.id, f.feature_key, f.name, f.description
+      ORDER BY f.id
+      """;
+
   private final FeatureRepository featureRepository;
   private final CompanyFeatureRepository companyFeatureRepository;
   private final CompanyRepository companyRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final long ttlNanos;
+  private final Map<Integer, Snapshot> snapshots = new ConcurrentHashMap<>();
 
   public FeatureToggleService(
       FeatureRepository featureRepository,
       CompanyFeatureRepository companyFeatureRepository,
-      CompanyRepository companyRepository) {
+      CompanyRepository companyRepository,
+      JdbcTemplate jdbcTemplate,
+      NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${paycanvas.cache.feature-toggle-ttl-seconds:60}") long ttlSeconds) {
     this.featureRepository = featureRepository;
     this.companyFeatureRepository = companyFeatureRepository;
     this.companyRepository = companyRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    this.eventPublisher = eventPublisher;
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
   }
 
-  @Transactional(readOnly = true)
   public List<FeatureToggle> listFeatureToggles() {
-    return featureRepository.findAll().stream()
-        .map(
-            feature -> {
-              long enabledTenants =
-                  companyFeatureRepository.countByFeature_FeatureKeyAndEnabledTrue(
-                      feature.getFeatureKey());
-              boolean enabledForDefaultCompany =
-                  companyFeatureRepository
-                      .findByCompany_IdAndFeature_FeatureKey(DEFAULT_COMPANY_ID, feature.getFeatureKey())
-                      .map(CompanyFeature::isEnabled)
-                      .orElse(false);
-              return new FeatureToggle(
-                  feature.getFeatureKey(),
-                  feature.getName(),
-                  feature.getDescription(),
-                  (int) enabledTenants,
-                  enabledForDefaultCompany);
-            })
-        .toList();
+    return toggles(DEFAULT_COMPANY_ID);
   }
 
   @Transactional
@@ -65,26 +99,156 @@ public class FeatureToggleService {
     CompanyFeature companyFeature =
         companyFeatureRepository
             .findByCompany_IdAndFeature_FeatureKey(DEFAULT_COMPANY_ID, featureKey)
-            .orElseGet(
-                () -> {
-                  CompanyFeature entity = new CompanyFeature();
-                  return entity;
-                });
+            .orElseGet(CompanyFeature::new);
 
     companyFeature.setCompany(company);
     companyFeature.setFeature(feature);
     companyFeature.setEnabled(isEnabled);
 
-    companyFeatureRepository.save(companyFeature);
+    // 集計クエリが更新内容を参照できるよう先に反映する
+    companyFeatureRepository.saveAndFlush(companyFeature);
+
+    List<FeatureToggle> toggles = load(DEFAULT_COMPANY_ID);
+    eventPublisher.publishEvent(new FeatureTogglesChangedEvent(DEFAULT_COMPANY_ID, toggles));
+
+    return toggles.stream()
+        .filter(toggle -> toggle.id().equals(featureKey))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("機能が見つかりません: " + featureKey));
+  }
+
+  /**
+   * 条件に一致する企業の機能を一括で有効化または無効化します。
+   * 既に同じ状態の企業は更新しません。
+   *
+   * @param featureKey 機能キー
+   * @param request 一括展開リクエスト
+   * @return 対象企業数と作成・更新件数
+   * @throws ResponseStatusException 対象企業の指定がない場合（400）、機能が存在しない場合（404）
+   */
+  @Transactional
+  public FeatureRolloutResult rollout(String featureKey, FeatureRolloutRequest request) {
+    boolean hasCompanyIds = !CollectionUtils.isEmpty(request.companyIds());
+    if (!hasCompanyIds && (request.companyStatus() == null || request.companyStatus().isBlank())) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "対象の企業IDリスト、または企業ステータスを指定してください");
+    }
+    Feature feature =
+        featureRepository
+            .findByFeatureKey(featureKey)
+            .orElseThrow(
+                () ->
+                    new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "機能が見つかりません: " + featureKey));
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("featureId", feature.getId())
+            .addValue("enabled", request.enabled());
+
+    StringBuilder filter = new StringBuilder(" WHERE TRUE");
+    if (hasCompanyIds) {
+      filter.append(" AND c.id IN (:companyIds)");
+      params.addValue("companyIds", request.companyIds());
+    }
+    if (request.companyStatus() != null && !request.companyStatus().isBlank()) {
+      filter.append(" AND c.status = :companyStatus");
+      params.addValue("companyStatus", request.companyStatus());
+    }
 
-    long enabledTenants =
-        companyFeatureRepository.countByFeature_FeatureKeyAndEnabledTrue(feature.getFeatureKey());
+    // xmax = 0 は INSERT された行、それ以外は ON CONFLICT で UPDATE された行
+    String sql =
+        "WITH target AS ("
+            + " SELECT c.id FROM m_companies c"
+            + filter
+            + "), upserted AS ("
+            + " INSERT INTO m_company_features (company_id, feature_id, is_enabled)"
+            + " SELECT t.id, :featureId, :enabled FROM target t"
+            + " ON CONFLICT (company_id, feature_id) DO UPDATE"
+            + " SET is_enabled = EXCLUDED.is_enabled"
+            + " WHERE m_company_features.is_enabled IS DISTINCT FROM EXCLUDED.is_enabled"
+            + " RETURNING company_id, (xmax = 0) AS inserted"
+            + ")"
+            + " SELECT (SELECT COUNT(*) FROM target) AS matched_count,"
+            + " (SELECT COUNT(*) FROM upserted WHERE inserted) AS inserted_count,"
+            + " (SELECT COUNT(*) FROM upserted WHERE NOT inserted) AS updated_count,"
+            + " ARRAY(SELECT company_id FROM upserted) AS company_ids";
 
-    return new FeatureToggle(
-        feature.getFeatureKey(),
-        feature.getName(),
-        feature.getDescription(),
-        (int) enabledTenants,
-        isEnabled);
+    RolloutCounts counts =
+        namedParameterJdbcTemplate.queryForObject(
+            sql,
+            params,
+            (rs, rowNum) ->
+                new RolloutCounts(
+                    rs.getInt("matched_count"),
+                    rs.getInt("inserted_count"),
+                    rs.getInt("updated_count"),
+                    toIntegerList(rs.getArray("company_ids"))));
+    if (!counts.changedCompanyIds().isEmpty()) {
+      eventPublisher.publishEvent(new FeatureRolledOutEvent(counts.changedCompanyIds()));
+    }
+    return new FeatureRolloutResult(
+        featureKey,
+        request.enabled(),
+        counts.matched(),
+        counts.inserted(),
+        counts.updated(),
+        counts.matched() - counts.inserted() - counts.updated());
   }
+
+  /**
+   * 機能の一括展開イベントを受け、コミット後に全企業のスナップショットを破棄します。
+   * 有効テナント数は全企業のスナップショットに含まれるため、対象企業に限らず破棄します。
+   *
+   * @param event 機能の一括展開イベント
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRolledOut(FeatureRolledOutEvent event) {
+    snapshots.clear();
+  }
+
+  /**
+   * 機能トグルの更新イベントを受け、コミット後にスナップショットを置き換えます。
+   *
+   * @param event 機能トグル更新イベント
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTogglesChanged(FeatureTogglesChangedEvent event) {
+    // 有効テナント数は全企業のスナップショットに含まれるため、更新企業以外は破棄する
+    snapshots.keySet().removeIf(companyId -> !companyId.equals(event.companyId()));
+    snapshots.put(event.companyId(), new Snapshot(event.toggles(), System.nanoTime()));
+  }
+
+  private List<FeatureToggle> toggles(Integer companyId) {
+    Snapshot snapshot = snapshots.get(companyId);
+    if (snapshot != null && System.nanoTime() - snapshot.loadedAt() <= ttlNanos) {
+      return snapshot.toggles();
+    }
+    List<FeatureToggle> toggles = load(companyId);
+    snapshots.put(companyId, new Snapshot(toggles, System.nanoTime()));
+    return toggles;
+  }
+
+  private List<FeatureToggle> load(Integer companyId) {
+    return List.copyOf(
+        jdbcTemplate.query(
+            FEATURE_TOGGLES_SQL,
+            (rs, rowNum) ->
+                new FeatureToggle(
+                    rs.getString("feature_key"),
+                    rs.getString("name"),
+                    rs.getString("description"),
+                    rs.getInt("enabled_tenants"),
+                    rs.getBoolean("enabled")),
+            companyId));
+  }
+
+  private static List<Integer> toIntegerList(Array array) throws SQLException {
+    return array != null ? Arrays.asList((Integer[]) array.getArray()) : List.of();
+  }
+
+  private record Snapshot(List<FeatureToggle> toggles, long loadedAt) {}
+
+  private record RolloutCounts(
+      int matched, int inserted, int updated, List<Integer> changedCompanyIds) {}
 }
@@ -0,0 +1,13 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.model.FeatureToggle;
+import java.util.List;
+
+/**
+ * 企業の機能トグルが更新されたことを通知するイベントです。
+ * トランザクションのコミット後に、更新時点の一覧で機能トグルのスナップショットを置き換えます。
+ *
+ * @param companyId 企業ID
+ * @param toggles 更新後の機能トグル一覧
+ */
+public record FeatureTogglesChangedEvent(Integer companyId, List<FeatureToggle> toggles) {}
@@ -0,0 +1,34 @@
+package com.paycanvas.api.service;
+
+import java.security.Key;
+import java.security.PrivateKey;
+import java.util.Optional;
+
+/**
+ * アクセストークンの署名鍵・検証鍵を提供するインターフェースです。
+ */
+public interface JwtKeyProvider {
+
+  /**
+   * 現在署名に使用する鍵を返します。
+   *
+   * @return 署名鍵
+   */
+  SigningKey currentSigningKey();
+
+  /**
+   * 鍵IDに対応する検証鍵（公開鍵）を返します。
+   *
+   * @param kid 鍵ID
+   * @return 検証鍵（未知または検証終了済みの鍵IDの場合は空）
+   */
+  Optional<Key> verificationKey(String kid);
+
+  /**
+   * 署名鍵。
+   *
+   * @param kid 鍵ID
+   * @param privateKey 秘密鍵
+   */
+  record SigningKey(String kid, PrivateKey privateKey) {}
+}
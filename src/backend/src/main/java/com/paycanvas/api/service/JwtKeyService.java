@@ -0,0 +1,319 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.security.KeyEncryptor;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * アクセストークン署名鍵（RS256）を管理するサービスクラスです。
+ *
+ * <p>鍵は m_jwt_signing_keys に保存して全ノードで共有し、メモリ上の鍵リングを定期的に再読込します。
+ * 鍵の更新は、新しい鍵を先にJWKSで公開し（{@code publish-lead}）、その後に署名へ切り替えます。
+ * 旧鍵は新鍵の使用開始からアクセストークンの有効期限が経過するまで検証用に残すため、
+ * 鍵の更新でログイン中のユーザーがログアウトされることはありません。</p>
+ *
+ * <p>秘密鍵は設定の鍵暗号化鍵（{@code security.jwt.key-encryption-key}）でAES-GCM暗号化して保存し、
+ * データベースのダンプやバックアップのみからはトークンを偽造できないようにします。
+ * 暗号化導入前に平文で保存された秘密鍵は、読込時に暗号化して書き戻します。
+ * RS256で鍵暗号化鍵が未設定の場合は起動しません。HS256で未設定の場合は署名鍵を扱いません。</p>
+ */
+@Service
+public class JwtKeyService implements JwtKeyProvider {
+  private static final Logger log = LoggerFactory.getLogger(JwtKeyService.class);
+  private static final String ALGORITHM = "RS256";
+  private static final int KEY_SIZE = 2048;
+  /** 未知の鍵IDを受け取った際の再読込の最短間隔 */
+  private static final Duration UNKNOWN_KID_RELOAD_INTERVAL = Duration.ofSeconds(5);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration rotationPeriod;
+  private final Duration publishLead;
+  private final Duration verificationOverlap;
+  private final KeyEncryptor keyEncryptor;
+
+  private volatile KeyRing keyRing;
+
+  /**
+   * JwtKeyServiceのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param transactionManager トランザクションマネージャー（鍵作成時の排他に使用）
+   * @param rotationDays 鍵の更新間隔（日）
+   * @param publishLeadMinutes 新しい鍵を公開してから署名に使用するまでの時間（分）
+   * @param expirationMinutes アクセストークンの有効期限（分）
+   * @param keyEncryptionKey 秘密鍵の暗号化鍵（Base64、32バイト）
+   * @param algorithm 署名方式（RS256の場合は鍵暗号化鍵が必須）
+   * @throws IllegalStateException RS256で鍵暗号化鍵が未設定の場合
+   */
+  public JwtKeyService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${security.jwt.key-rotation-days:30}") long rotationDays,
+      @Value("${security.jwt.key-publish-lead-minutes:10}") long publishLeadMinutes,
+      @Value("${security.jwt.expiration-minutes:60}") long expirationMinutes,
+      @Value("${security.jwt.key-encryption-key:}") String keyEncryptionKey,
+      @Value("${security.jwt.algorithm:RS256}") String algorithm) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.rotationPeriod = Duration.ofDays(rotationDays);
+    this.publishLead = Duration.ofMinutes(publishLeadMinutes);
+    // 時刻のずれを考慮し、有効期限に5分の余裕を加える
+    this.verificationOverlap = Duration.ofMinutes(expirationMinutes + 5);
+    if (keyEncryptionKey != null && !keyEncryptionKey.isBlank()) {
+      this.keyEncryptor = new KeyEncryptor(Base64.getDecoder().decode(keyEncryptionKey));
+    } else if (ALGORITHM.equalsIgnoreCase(algorithm)) {
+      // 共有・既定値のJWT秘密鍵から導出するとダンプから秘密鍵を復号できるため、起動させない
+      throw new IllegalStateException(
+          "RS256では security.jwt.key-encryption-key（PAYCANVAS_JWT_KEY_ENCRYPTION_KEY）の設定が必要です");
+    } else {
+      this.keyEncryptor = null;
+    }
+  }
+
+  @Override
+  public SigningKey currentSigningKey() {
+    KeyEntry active = ring().active(Instant.now());
+    if (active == null) {
+      // 初回起動時などで有効な鍵がない場合は即時有効な鍵を作成する
+      rotate(true);
+      active = ring().active(Instant.now());
+    }
+    if (active == null) {
+      throw new IllegalStateException("有効なJWT署名鍵がありません");
+    }
+    return new SigningKey(active.kid(), active.keyPair().getPrivate());
+  }
+
+  @Override
+  public Optional<Key> verificationKey(String kid) {
+    KeyRing current = ring();
+    KeyEntry entry = current.byKid().get(kid);
+    if (entry == null
+        && Duration.between(current.loadedAt(), Instant.now())
+                .compareTo(UNKNOWN_KID_RELOAD_INTERVAL) > 0) {
+      // 他ノードで作成された直後の鍵の可能性があるため再読込する（間隔を空けて総当たりを防ぐ）
+      entry = load().byKid().get(kid);
+    }
+    return Optional.ofNullable(entry).map(found -> found.keyPair().getPublic());
+  }
+
+  /**
+   * JWKS（JSON Web Key Set）形式で公開鍵を返します。署名開始前・検証期間中の鍵を含みます。
+   *
+   * @return JWKS
+   */
+  public Map<String, Object> jwks() {
+    List<Map<String, Object>> keys = new ArrayList<>();
+    for (KeyEntry entry : ring().entries()) {
+      RSAPublicKey publicKey = (RSAPublicKey) entry.keyPair().getPublic();
+      Map<String, Object> jwk = new LinkedHashMap<>();
+      jwk.put("kty", "RSA");
+      jwk.put("use", "sig");
+      jwk.put("alg", ALGORITHM);
+      jwk.put("kid", entry.kid());
+      jwk.put("n", base64Url(publicKey.getModulus()));
+      jwk.put("e", base64Url(publicKey.getPublicExponent()));
+      keys.add(jwk);
+    }
+    return Map.of("keys", keys);
+  }
+
+  /**
+   * 鍵リングを再読込します。他ノードで作成・更新された鍵を反映します。
+   */
+  @Scheduled(fixedDelayString = "${security.jwt.key-reload-millis:60000}")
+  public void reload() {
+    load();
+  }
+
+  /**
+   * 定期的に鍵を更新します。最新の鍵の作成から更新間隔が経過している場合のみ新しい鍵を作成します。
+   */
+  @Scheduled(cron = "${security.jwt.key-rotation-cron:0 20 4 * * *}")
+  public void scheduledRotate() {
+    if (keyEncryptor == null) {
+      return;
+    }
+    rotate(false);
+  }
+
+  /**
+   * 鍵を更新します。複数ノードで同時に実行されても鍵は1つだけ作成されます。
+   *
+   * @param immediate 新しい鍵を即時に署名へ使用する場合true（有効な鍵が1つもない場合に使用）
+   */
+  public void rotate(boolean immediate) {
+    transactionTemplate.executeWithoutResult(status -> rotateLocked(immediate));
+    load();
+  }
+
+  private synchronized KeyRing load() {
+    if (keyEncryptor == null) {
+      // HS256で鍵暗号化鍵が未設定の場合は署名鍵を読み込まない（JWKSは空）
+      KeyRing empty = new KeyRing(List.of(), Map.of(), Instant.now());
+      keyRing = empty;
+      return empty;
+    }
+    Map<String, String> plaintextKeys = new HashMap<>();
+    List<KeyEntry> entries =
+        jdbcTemplate.query(
+            """
+            SELECT kid, public_key, private_key, activate_at, retire_at
+            FROM m_jwt_signing_keys
+            WHERE algorithm = ? AND (retire_at IS NULL OR retire_at > CURRENT_TIMESTAMP)
+            ORDER BY activate_at
+            """,
+            (rs, rowNum) -> {
+              String kid = rs.getString("kid");
+              String stored = rs.getString("private_key");
+              byte[] privateKey;
+              if (KeyEncryptor.isEncrypted(stored)) {
+                privateKey = keyEncryptor.decrypt(stored, kid);
+              } else {
+                plaintextKeys.put(kid, stored);
+                privateKey = Base64.getDecoder().decode(stored);
+              }
+              return new KeyEntry(
+                  kid,
+                  decode(rs.getString("public_key"), privateKey),
+                  rs.getTimestamp("activate_at").toInstant(),
+                  rs.getTimestamp("retire_at") != null
+                      ? rs.getTimestamp("retire_at").toInstant()
+                      : null);
+            },
+            ALGORITHM);
+    plaintextKeys.forEach(this::encryptStored);
+    Map<String, KeyEntry> byKid = new HashMap<>();
+    entries.forEach(entry -> byKid.put(entry.kid(), entry));
+    KeyRing loaded = new KeyRing(List.copyOf(entries), Map.copyOf(byKid), Instant.now());
+    keyRing = loaded;
+    return loaded;
+  }
+
+  private void rotateLocked(boolean immediate) {
+    // 複数ノードでの同時作成を防ぐため、トランザクション終了まで保持されるアドバイザリロックを取得する
+    jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('m_jwt_signing_keys'))");
+    Instant now = Instant.now();
+    Timestamp latest =
+        jdbcTemplate.queryForObject(
+            "SELECT MAX(activate_at) FROM m_jwt_signing_keys"
+                + " WHERE algorithm = ? AND (retire_at IS NULL OR retire_at > CURRENT_TIMESTAMP)",
+            Timestamp.class,
+            ALGORITHM);
+    if (latest != null
+        && (immediate
+            ? !latest.toInstant().isAfter(now)
+            : latest.toInstant().plus(rotationPeriod).isAfter(now))) {
+      // 他ノードで作成済み、または更新時期に達していない
+      return;
+    }
+
+    Instant activateAt = immediate ? now : now.plus(publishLead);
+    KeyPair keyPair = generate();
+    String kid = UUID.randomUUID().toString();
+    jdbcTemplate.update(
+        "UPDATE m_jwt_signing_keys SET retire_at = ? WHERE algorithm = ? AND retire_at IS NULL",
+        Timestamp.from(activateAt.plus(verificationOverlap)),
+        ALGORITHM);
+    jdbcTemplate.update(
+        "INSERT INTO m_jwt_signing_keys (kid, algorithm, public_key, private_key, activate_at)"
+            + " VALUES (?, ?, ?, ?, ?)",
+        kid,
+        ALGORITHM,
+        Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+        keyEncryptor.encrypt(keyPair.getPrivate().getEncoded(), kid),
+        Timestamp.from(activateAt));
+    // 検証期間を1日以上過ぎた鍵は削除する
+    jdbcTemplate.update(
+        "DELETE FROM m_jwt_signing_keys WHERE retire_at < CURRENT_TIMESTAMP - INTERVAL '1 day'");
+    log.info("JWT署名鍵を作成しました（kid: {}, 使用開始: {}）", kid, activateAt);
+  }
+
+  // 暗号化導入前に平文で保存された秘密鍵を暗号化して書き戻す
+  private void encryptStored(String kid, String stored) {
+    jdbcTemplate.update(
+        "UPDATE m_jwt_signing_keys SET private_key = ? WHERE kid = ? AND private_key = ?",
+        keyEncryptor.encrypt(Base64.getDecoder().decode(stored), kid),
+        kid,
+        stored);
+    log.info("平文で保存されていたJWT署名鍵を暗号化しました（kid: {}）", kid);
+  }
+
+  private KeyRing ring() {
+    KeyRing current = keyRing;
+    return current != null ? current : load();
+  }
+
+  private static KeyPair generate() {
+    try {
+      KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+      generator.initialize(KEY_SIZE);
+      return generator.generateKeyPair();
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("JWT署名鍵の作成に失敗しました", ex);
+    }
+  }
+
+  private static KeyPair decode(String publicKey, byte[] privateKey) {
+    try {
+      KeyFactory factory = KeyFactory.getInstance("RSA");
+      PrivateKey decodedPrivate = factory.generatePrivate(new PKCS8EncodedKeySpec(privateKey));
+      return new KeyPair(
+          factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey))),
+          decodedPrivate);
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("JWT署名鍵の読込に失敗しました", ex);
+    }
+  }
+
+  private static String base64Url(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    if (bytes.length > 1 && bytes[0] == 0) {
+      // 符号ビット用の先頭0バイトはJWKでは含めない
+      bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  private record KeyEntry(String kid, KeyPair keyPair, Instant activateAt, Instant retireAt) {}
+
+  /** メモリ上の鍵リング（検証期間中の鍵を使用開始日時の昇順で保持） */
+  private record KeyRing(List<KeyEntry> entries, Map<String, KeyEntry> byKid, Instant loadedAt) {
+    KeyEntry active(Instant now) {
+      return entries.stream()
+          .filter(entry -> !entry.activateAt().isAfter(now))
+          .max(Comparator.comparing(KeyEntry::activateAt))
+          .orElse(null);
+    }
+  }
+}
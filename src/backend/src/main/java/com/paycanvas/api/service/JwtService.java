@@ -1,28 +1,63 @@
 package com.paycanvas.api.service;
 
 import com.paycanvas.api.entity.UserAccount;
+import com.paycanvas.api.security.FeatureSet;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
  * JWT（JSON Web Token）トークンの生成と検証を担当するサービスクラスです。
  * アクセストークンの生成、解析、署名検証の機能を提供します。
+ *
+ * <p>同一のアクセストークンは有効期限まで繰り返し送信されるため、署名検証に成功したトークンは
+ * 解析済みクレームを有効期限までメモリに保持し、2回目以降の署名検証とJSON解析を省略します。</p>
+ *
+ * <p>署名方式は{@code security.jwt.algorithm}で指定します。RS256の場合は{@link JwtKeyProvider}の
+ * 現役の鍵で署名してヘッダーに kid を含め、他サービスはJWKSの公開鍵のみで検証できます。
+ * kid のないトークン（HS256で発行済みのもの）は移行期限（{@code security.jwt.legacy-hs256-until}、
+ * 全ノードで同じ固定日時）までに発行されたもののみ共有秘密鍵で検証し、期限＋有効期限の経過後は
+ * 共有秘密鍵による検証自体を行いません。移行期限が未設定の場合、kid のないトークンは受け付けません。</p>
+ *
+ * <p>利用可能機能は機能IDのビット列（{@link FeatureSet}）として {@code feat} クレームに格納し、
+ * 機能数が増えてもトークンのサイズと署名・解析の負荷をほぼ一定に保ちます。</p>
  */
 @Service
 public class JwtService {
+  /** 利用可能機能（機能IDのビット列）のクレーム名 */
+  public static final String FEATURES_CLAIM = "feat";
+  private static final String ALGORITHM_RS256 = "RS256";
+  private static final long EVICT_INTERVAL_MILLIS = 1000;
+
   private final Key signingKey;
+  private final boolean asymmetric;
+  private final JwtKeyProvider keyProvider;
+  private final JwtParser parser;
   private final Duration accessTokenDuration;
+  private final Instant legacyHs256Until;
+  private final int verifiedCacheMaxEntries;
+  // キーはトークン文字列全体（署名部を含む）とし、検証済みトークンと完全一致する場合のみヒットさせる
+  private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+  private final AtomicLong lastEvictAt = new AtomicLong();
 
   /**
    * JWTトークンとその有効期限を表すレコードです。
@@ -37,12 +72,39 @@ public class JwtService {
    *
    * @param secret JWT署名用の秘密鍵（Base64エンコード済み）
    * @param expirationMinutes アクセストークンの有効期限（分）
+   * @param verifiedCacheMaxEntries 検証済みトークンの最大保持件数（0でキャッシュしない）
+   * @param algorithm 署名方式（RS256 または HS256）
+   * @param keyProvider RS256の署名鍵・検証鍵の提供元
+   * @param legacyHs256Until RS256移行時にkidのないトークンを受け付ける発行日時の上限
+   *     （ISO-8601、空の場合はRS256でkidのないトークンを受け付けない）
    */
   public JwtService(
       @Value("${security.jwt.secret}") String secret,
-      @Value("${security.jwt.expiration-minutes:60}") long expirationMinutes) {
+      @Value("${security.jwt.expiration-minutes:60}") long expirationMinutes,
+      @Value("${security.jwt.verified-cache-max-entries:10000}") int verifiedCacheMaxEntries,
+      @Value("${security.jwt.algorithm:RS256}") String algorithm,
+      JwtKeyProvider keyProvider,
+      @Value("${security.jwt.legacy-hs256-until:}") String legacyHs256Until) {
     this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(ensureSecret(secret)));
+    this.asymmetric = ALGORITHM_RS256.equalsIgnoreCase(algorithm);
+    this.keyProvider = keyProvider;
+    this.parser =
+        Jwts.parserBuilder()
+            .setSigningKeyResolver(
+                new SigningKeyResolverAdapter() {
+                  @Override
+                  public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return verificationKey(header.getKeyId(), claims);
+                  }
+                })
+            .build();
     this.accessTokenDuration = Duration.ofMinutes(expirationMinutes);
+    // ノードごとに異なる起動時刻を期限にすると、再起動のたびに共有秘密鍵での偽造を受け付けてしまう
+    this.legacyHs256Until =
+        legacyHs256Until == null || legacyHs256Until.isBlank()
+            ? null
+            : Instant.parse(legacyHs256Until);
+    this.verifiedCacheMaxEntries = verifiedCacheMaxEntries;
   }
 
   /**
@@ -51,63 +113,176 @@ public class JwtService {
    *
    * @param user ユーザーアカウント
    * @param roleKey ユーザーの役割キー
-   * @param enabledFeatures 利用可能な機能リスト
+   * @param features 利用可能な機能IDの集合
+   * @param sessionId リフレッシュトークンのセッションファミリーID（端末単位のログアウトに使用）
+   * @return 生成されたJWTトークンと有効期限
+   */
+  public JwtToken generateAccessToken(
+      UserAccount user, String roleKey, FeatureSet features, String sessionId) {
+    return generateAccessToken(
+        user.getId(),
+        user.getCompany() != null ? user.getCompany().getId() : null,
+        user.getTokenVersion(),
+        roleKey,
+        features,
+        sessionId);
+  }
+
+  /**
+   * アクセストークンを生成します。エンティティを読み込まずに取得したユーザー情報から作成します。
+   *
+   * @param userId ユーザーID
+   * @param companyId 所属企業ID（未所属の場合はnull）
+   * @param tokenVersion トークンバージョン
+   * @param roleKey ユーザーの役割キー
+   * @param features 利用可能な機能IDの集合
+   * @param sessionId リフレッシュトークンのセッションファミリーID
    * @return 生成されたJWTトークンと有効期限
    */
   public JwtToken generateAccessToken(
-      UserAccount user, String roleKey, List<String> enabledFeatures) {
+      Integer userId,
+      Integer companyId,
+      int tokenVersion,
+      String roleKey,
+      FeatureSet features,
+      String sessionId) {
     Instant now = Instant.now();
     Instant expiry = now.plus(accessTokenDuration);
-    Claims claims = Jwts.claims().setSubject(String.valueOf(user.getId()));
-    if (user.getCompany() != null) {
-      claims.put("companyId", user.getCompany().getId());
+    Claims claims = Jwts.claims().setSubject(String.valueOf(userId));
+    // ログアウト時にトークン単位で失効させるためのID
+    claims.setId(UUID.randomUUID().toString());
+    if (companyId != null) {
+      claims.put("companyId", companyId);
     }
     claims.put("role", roleKey);
-    claims.put("enabledFeatures", enabledFeatures);
+    claims.put("ver", tokenVersion);
+    if (sessionId != null) {
+      claims.put("sid", sessionId);
+    }
+    claims.put(FEATURES_CLAIM, features.encode());
 
     Date issuedAt = Date.from(now);
     Date expiration = Date.from(expiry);
 
-    String token =
-        Jwts.builder()
-            .setClaims(claims)
-            .setIssuedAt(issuedAt)
-            .setExpiration(expiration)
-            .signWith(signingKey, SignatureAlgorithm.HS256)
-            .compact();
+    JwtBuilder builder =
+        Jwts.builder().setClaims(claims).setIssuedAt(issuedAt).setExpiration(expiration);
+    if (asymmetric) {
+      JwtKeyProvider.SigningKey key = keyProvider.currentSigningKey();
+      builder
+          .setHeaderParam(JwsHeader.KEY_ID, key.kid())
+          .signWith(key.privateKey(), SignatureAlgorithm.RS256);
+    } else {
+      builder.signWith(signingKey, SignatureAlgorithm.HS256);
+    }
+    String token = builder.compact();
 
     return new JwtToken(token, expiry);
   }
 
   /**
    * JWTトークンを解析してクレーム情報を取得します。
-   * 署名の検証も同時に行います。
+   * 署名の検証も同時に行います。検証済みのトークンは有効期限までキャッシュから返します。
+   * 返却したクレームはキャッシュと共有されるため、呼び出し側で変更しないでください。
    *
    * @param token 解析対象のJWTトークン
    * @return トークンに含まれるクレーム情報
    * @throws io.jsonwebtoken.JwtException トークンが無効な場合
    */
   public Claims parseToken(String token) {
-    Jws<Claims> jws =
-        Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(token);
-    return jws.getBody();
+    long now = System.currentTimeMillis();
+    VerifiedToken cached = verifiedTokens.get(token);
+    if (cached != null) {
+      if (now < cached.expiresAtMillis()) {
+        return cached.claims();
+      }
+      verifiedTokens.remove(token, cached);
+    }
+    Jws<Claims> jws = parser.parseClaimsJws(token);
+    Claims claims = jws.getBody();
+    if (verifiedCacheMaxEntries > 0 && claims.getExpiration() != null && hasRoom(now)) {
+      verifiedTokens.put(token, new VerifiedToken(claims, claims.getExpiration().getTime()));
+    }
+    return claims;
+  }
+
+  /**
+   * クレームから利用可能機能のクレーム値（{@link FeatureSet#encode()}の形式）を取得します。
+   * 復号は行わないため、機能を参照しないリクエストでは復号の負荷がかかりません。
+   *
+   * @param claims 解析済みクレーム
+   * @return 利用可能機能のクレーム値（クレームがない場合はnull）
+   */
+  public String extractFeaturesClaim(Claims claims) {
+    return claims.get(FEATURES_CLAIM, String.class);
+  }
+
+  /**
+   * 検証済みトークンのキャッシュを破棄します。
+   */
+  public void invalidateVerifiedTokens() {
+    verifiedTokens.clear();
   }
 
   /**
    * ユーザーアカウントから役割キーを抽出します。
-   * 複数の役割が設定されている場合は最初の役割を返し、
+   * 複数の役割が設定されている場合はログイン時と同じくID順の先頭（権限の強いもの）を返し、
    * 役割が設定されていない場合は"STAFF"を返します。
    *
    * @param user ユーザーアカウント
    * @return ユーザーの役割キー
    */
   public String extractRole(UserAccount user) {
+    // 役割の集合は順序を持たないため、ID順で選び発行のたびに役割が変わらないようにする
     return user.getRoles().stream()
-        .map(userRole -> userRole.getRole().getRoleKey())
-        .findFirst()
+        .map(userRole -> userRole.getRole())
+        .min(Comparator.comparing(role -> role.getId()))
+        .map(role -> role.getRoleKey())
         .orElse("STAFF");
   }
 
+  // 署名方式と鍵の種類の不一致（公開鍵をHMAC鍵として使う等）は jjwt が検証時に拒否する
+  private Key verificationKey(String kid, Claims claims) {
+    if (kid == null) {
+      if (asymmetric) {
+        checkLegacyToken(claims);
+      }
+      return signingKey;
+    }
+    if (keyProvider == null) {
+      throw new JwtException("署名鍵が設定されていません: " + kid);
+    }
+    return keyProvider
+        .verificationKey(kid)
+        .orElseThrow(() -> new JwtException("未知の署名鍵です: " + kid));
+  }
+
+  // RS256移行後は、共有秘密鍵で新たに作られたkidのないトークンを受け付けない
+  private void checkLegacyToken(Claims claims) {
+    if (legacyHs256Until == null) {
+      throw new JwtException("kidのないトークンは受け付けません");
+    }
+    if (Instant.now().isAfter(legacyHs256Until.plus(accessTokenDuration))) {
+      throw new JwtException("kidのないトークンの受付期間は終了しています");
+    }
+    Date issuedAt = claims.getIssuedAt();
+    if (issuedAt == null || issuedAt.toInstant().isAfter(legacyHs256Until)) {
+      throw new JwtException("移行期限後に発行されたkidのないトークンです");
+    }
+  }
+
+  // 上限到達時は期限切れのみ削除し、有効なトークンで埋まっている間は新しいトークンを保持しない
+  private boolean hasRoom(long now) {
+    if (verifiedTokens.size() < verifiedCacheMaxEntries) {
+      return true;
+    }
+    long lastEvict = lastEvictAt.get();
+    if (now - lastEvict >= EVICT_INTERVAL_MILLIS && lastEvictAt.compareAndSet(lastEvict, now)) {
+      // 全件走査のため、上限到達中も実行は一定間隔に抑える
+      verifiedTokens.values().removeIf(verified -> now >= verified.expiresAtMillis());
+    }
+    return verifiedTokens.size() < verifiedCacheMaxEntries;
+  }
+
   /**
    * JWT秘密鍵の妥当性を確保し、適切な形式に変換します。
    * 鍵の長さが不足している場合は補完し、Base64エンコードを行います。
@@ -127,4 +302,6 @@ public class JwtService {
     // Convert raw string to base64 bytes for HMAC key
     return io.jsonwebtoken.io.Encoders.BASE64.encode(secret.getBytes());
   }
+
+  private record VerifiedToken(Claims claims, long expiresAtMillis) {}
 }
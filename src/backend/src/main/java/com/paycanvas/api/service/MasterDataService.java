@@ -17,6 +17,7 @@ import com.paycanvas.api.repository.StoreRepository;
 import java.math.BigDecimal;
 import java.util.Comparator;
 import java.util.List;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -35,6 +36,7 @@ public class MasterDataService {
   private final StoreRepository storeRepository;
   private final EmployeeGradeRepository employeeGradeRepository;
   private final SalaryTierRepository salaryTierRepository;
+  private final StoreNameCache storeNameCache;
 
   /**
    * MasterDataServiceのコンストラクタです。
@@ -43,16 +45,19 @@ public class MasterDataService {
    * @param storeRepository 店舗情報のリポジトリ
    * @param employeeGradeRepository 従業員等級のリポジトリ
    * @param salaryTierRepository 給与階層のリポジトリ
+   * @param storeNameCache 店舗名キャッシュ
    */
   public MasterDataService(
       CompanyRepository companyRepository,
       StoreRepository storeRepository,
       EmployeeGradeRepository employeeGradeRepository,
-      SalaryTierRepository salaryTierRepository) {
+      SalaryTierRepository salaryTierRepository,
+      StoreNameCache storeNameCache) {
     this.companyRepository = companyRepository;
     this.storeRepository = storeRepository;
     this.employeeGradeRepository = employeeGradeRepository;
     this.salaryTierRepository = salaryTierRepository;
+    this.storeNameCache = storeNameCache;
   }
 
   /**
@@ -97,6 +102,7 @@ public class MasterDataService {
     store.setStoreType(request.storeType());
     store.setAddress(request.address());
     Store saved = storeRepository.save(store);
+    storeNameCache.invalidate();
     return new StoreResponse(saved.getId(), saved.getName(), saved.getStoreType(), saved.getAddress());
   }
 
@@ -119,22 +125,33 @@ public class MasterDataService {
     store.setStoreType(request.storeType());
     store.setAddress(request.address());
     Store saved = storeRepository.save(store);
+    storeNameCache.invalidate();
     return new StoreResponse(saved.getId(), saved.getName(), saved.getStoreType(), saved.getAddress());
   }
 
   /**
    * 指定されたIDの店舗を削除します。
    * 指定されたIDの店舗が存在しない場合は例外をスローします。
+   * 勤怠・店舗実績・従業員などから参照されている店舗は削除できません。
    *
    * @param id 削除対象の店舗ID
-   * @throws ResponseStatusException 指定されたIDの店舗が見つからない場合
+   * @throws ResponseStatusException 指定されたIDの店舗が見つからない場合（404）、
+   *     他のデータから参照されている場合（409）
    */
   @Transactional
   public void deleteStore(Integer id) {
     if (!storeRepository.existsById(id)) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "店舗が見つかりません");
     }
-    storeRepository.deleteById(id);
+    try {
+      // 外部キー制約違反をこのメソッド内で検知するため、削除を即時にフラッシュする
+      storeRepository.deleteById(id);
+      storeRepository.flush();
+    } catch (DataIntegrityViolationException ex) {
+      throw new ResponseStatusException(
+          HttpStatus.CONFLICT, "勤怠や従業員などのデータから参照されている店舗は削除できません", ex);
+    }
+    storeNameCache.invalidate();
   }
 
   // --- Grades ---
@@ -0,0 +1,82 @@
+package com.paycanvas.api.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 日次テーブルの月次パーティションを保守するサービスクラスです。
+ * 起動時と毎日の定期実行で、当月から指定月数先までのパーティションを事前作成します。
+ */
+@Service
+public class PartitionMaintenanceService {
+  private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+  /** パーティション化されたテーブルとパーティションキー列の組み合わせ */
+  private static final List<PartitionedTable> PARTITIONED_TABLES =
+      List.of(
+          new PartitionedTable("t_daily_attendances", "work_date"),
+          new PartitionedTable("t_daily_store_metrics", "metric_date"),
+          new PartitionedTable("t_daily_personal_metrics", "metric_date"));
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int monthsAhead;
+
+  /**
+   * PartitionMaintenanceServiceのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param monthsAhead 事前作成する将来月数
+   */
+  public PartitionMaintenanceService(
+      JdbcTemplate jdbcTemplate,
+      @Value("${paycanvas.partition.months-ahead:3}") int monthsAhead) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.monthsAhead = monthsAhead;
+  }
+
+  /**
+   * アプリケーション起動完了時にパーティションを確認・作成します。
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    ensureFuturePartitions();
+  }
+
+  /**
+   * 当月から{@code monthsAhead}ヶ月先までのパーティションを作成します。
+   * 既存のパーティションはスキップされるため、何度実行しても安全です。
+   *
+   * @return 新規作成したパーティション数
+   */
+  @Scheduled(cron = "${paycanvas.partition.cron:0 30 3 * * *}")
+  public int ensureFuturePartitions() {
+    LocalDate from = LocalDate.now().withDayOfMonth(1);
+    LocalDate to = from.plusMonths(monthsAhead);
+    int created = 0;
+    for (PartitionedTable table : PARTITIONED_TABLES) {
+      Integer count =
+          jdbcTemplate.queryForObject(
+              "SELECT ensure_monthly_partitions(?, ?, ?, ?)",
+              Integer.class,
+              table.name(),
+              table.column(),
+              from,
+              to);
+      created += count != null ? count : 0;
+    }
+    if (created > 0) {
+      log.info("月次パーティションを{}件作成しました（{}〜{}）", created, from, to);
+    }
+    return created;
+  }
+
+  private record PartitionedTable(String name, String column) {}
+}
@@ -0,0 +1,152 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.service.calendar.CalendarView;
+import com.paycanvas.api.service.payroll.AttendanceCounters;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 月次給与の勤怠日数（work_days / paid_leave_days / absence_days）を算出するサービスクラスです。
+ *
+ * <p>企業・対象月の全従業員分を1回の集計クエリで取得し、所定労働日数（給与ランクの月間休日数と
+ * 所属店舗の営業カレンダーの小さい方）と突き合わせて{@link AttendanceCounters}に格納します。</p>
+ */
+@Service
+public class PayrollAttendanceService {
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final BusinessCalendarService businessCalendarService;
+
+  /**
+   * PayrollAttendanceServiceのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param businessCalendarService 営業カレンダーサービス
+   */
+  public PayrollAttendanceService(
+      JdbcTemplate jdbcTemplate, BusinessCalendarService businessCalendarService) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.businessCalendarService = businessCalendarService;
+  }
+
+  /**
+   * 指定企業・対象月の従業員別勤怠日数を集計します。
+   * 差戻しの勤怠は集計対象外です。
+   *
+   * @param companyId 企業ID
+   * @param month 対象月
+   * @return 従業員別勤怠日数
+   */
+  @Transactional(readOnly = true)
+  public AttendanceCounters aggregate(Integer companyId, YearMonth month) {
+    LocalDate monthStart = month.atDay(1);
+    LocalDate monthEnd = month.atEndOfMonth();
+    Map<Integer, Integer> calendarDaysByStore = new HashMap<>();
+
+    int[][] columns = new int[5][INITIAL_CAPACITY];
+    int[] size = {0};
+    jdbcTemplate.query(
+        "SELECT e.id, e.store_id, t.monthly_days_off,"
+            + " COUNT(DISTINCT a.work_date) FILTER ("
+            + "   WHERE a.attendance_type <> 'PAID_LEAVE' AND a.check_in IS NOT NULL) AS work_days,"
+            + " COALESCE(SUM(CASE a.attendance_type"
+            + "   WHEN 'PAID_LEAVE' THEN 2 WHEN 'PAID_LEAVE_HALF' THEN 1 ELSE 0 END), 0) AS paid_leave_half_days,"
+            + " COUNT(DISTINCT a.work_date) FILTER ("
+            + "   WHERE a.attendance_type <> 'WORK' OR a.check_in IS NOT NULL) AS covered_days"
+            + " FROM m_employees e"
+            + " LEFT JOIN m_salary_tiers t ON t.id = e.salary_tier_id"
+            + " LEFT JOIN t_daily_attendances a ON a.employee_id = e.id"
+            + "   AND a.company_id = e.company_id"
+            + "   AND a.work_date >= ? AND a.work_date < ?"
+            + "   AND a.status <> ?"
+            + " WHERE e.company_id = ?"
+            + " GROUP BY e.id, e.store_id, t.monthly_days_off"
+            + " ORDER BY e.id",
+        rs -> {
+          int index = size[0]++;
+          if (index == columns[0].length) {
+            for (int i = 0; i < columns.length; i++) {
+              columns[i] = Arrays.copyOf(columns[i], index * 2);
+            }
+          }
+          Integer storeId = rs.getObject("store_id", Integer.class);
+          Integer daysOff = rs.getObject("monthly_days_off", Integer.class);
+          // 店舗ごとの営業日数は1回だけ数え、以降は同じ店舗の従業員で使い回す
+          int calendarDays =
+              calendarDaysByStore.computeIfAbsent(
+                  storeId != null ? storeId : 0,
+                  key -> {
+                    CalendarView calendar = businessCalendarService.view(companyId, storeId);
+                    return calendar.countWorkdays(monthStart, monthEnd);
+                  });
+          int scheduled =
+              daysOff != null
+                  ? Math.min(calendarDays, Math.max(0, month.lengthOfMonth() - daysOff))
+                  : calendarDays;
+          columns[0][index] = rs.getInt("id");
+          columns[1][index] = scheduled;
+          columns[2][index] = rs.getInt("work_days");
+          columns[3][index] = rs.getInt("paid_leave_half_days");
+          columns[4][index] = AttendanceCounters.absenceDays(scheduled, rs.getInt("covered_days"));
+        },
+        monthStart,
+        month.plusMonths(1).atDay(1),
+        AttendanceApprovalService.STATUS_REJECTED,
+        companyId);
+
+    int count = size[0];
+    return new AttendanceCounters(
+        Arrays.copyOf(columns[0], count),
+        Arrays.copyOf(columns[1], count),
+        Arrays.copyOf(columns[2], count),
+        Arrays.copyOf(columns[3], count),
+        Arrays.copyOf(columns[4], count));
+  }
+
+  /**
+   * 指定企業・対象月の勤怠日数を集計し、月次給与へ一括反映します。
+   * 月次給与の行が存在しない従業員は更新対象外です。
+   *
+   * @param companyId 企業ID
+   * @param month 対象月
+   * @return 更新した月次給与の件数
+   */
+  @Transactional
+  public int applyAttendanceDays(Integer companyId, YearMonth month) {
+    AttendanceCounters counters = aggregate(companyId, month);
+    if (counters.size() == 0) {
+      return 0;
+    }
+    List<Object[]> updates = new ArrayList<>(counters.size());
+    for (int i = 0; i < counters.size(); i++) {
+      updates.add(
+          new Object[] {
+            counters.workDays(i),
+            BigDecimal.valueOf(counters.paidLeaveHalfDays(i) * 5L, 1),
+            BigDecimal.valueOf(counters.absenceDays(i)),
+            counters.employeeId(i),
+            month.toString()
+          });
+    }
+    int[] counts =
+        jdbcTemplate.batchUpdate(
+            "UPDATE t_monthly_payrolls SET work_days = ?, paid_leave_days = ?, absence_days = ?"
+                + " WHERE employee_id = ? AND target_year_month = ?",
+            updates);
+    int updated = 0;
+    for (int count : counts) {
+      updated += Math.max(count, 0);
+    }
+    return updated;
+  }
+}
@@ -1,23 +1,39 @@
 package com.paycanvas.api.service;
 
 import com.paycanvas.api.model.PayrollJob;
+import com.paycanvas.api.service.dashboard.DashboardDataChangedEvent;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
-public class PayrollJobService {
+public class PayrollJobService extends CustomService {
   private final JdbcTemplate jdbcTemplate;
+  private final PayrollOvertimeService payrollOvertimeService;
+  private final PayrollAttendanceService payrollAttendanceService;
+  private final ApplicationEventPublisher eventPublisher;
   private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-  public PayrollJobService(JdbcTemplate jdbcTemplate) {
+  public PayrollJobService(
+      JdbcTemplate jdbcTemplate,
+      PayrollOvertimeService payrollOvertimeService,
+      PayrollAttendanceService payrollAttendanceService,
+      ApplicationEventPublisher eventPublisher) {
     this.jdbcTemplate = jdbcTemplate;
+    this.payrollOvertimeService = payrollOvertimeService;
+    this.payrollAttendanceService = payrollAttendanceService;
+    this.eventPublisher = eventPublisher;
   }
 
   @Transactional(readOnly = true)
@@ -30,6 +46,12 @@ public class PayrollJobService {
 
   @Transactional
   public PayrollJob startJob(String targetMonth) {
+    YearMonth month;
+    try {
+      month = YearMonth.parse(targetMonth);
+    } catch (DateTimeParseException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "対象月はyyyy-MM形式で指定してください");
+    }
     String jobKey = targetMonth;
     jdbcTemplate.update(
         "INSERT INTO t_payroll_jobs (job_key, target_month, status, progress, started_at)"
@@ -39,6 +61,10 @@ public class PayrollJobService {
         jobKey,
         targetMonth,
         LocalDateTime.now());
+    Integer companyId = getCurrentCompanyId();
+    payrollAttendanceService.applyAttendanceDays(companyId, month);
+    payrollOvertimeService.applyOvertime(companyId, month);
+    eventPublisher.publishEvent(new DashboardDataChangedEvent(companyId, month));
     return jdbcTemplate.queryForObject(
         "SELECT job_key, target_month, status, progress, started_at FROM t_payroll_jobs WHERE job_key = ?",
         jobMapper(),
@@ -0,0 +1,153 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.service.calendar.CalendarView;
+import com.paycanvas.api.service.payroll.PremiumPayEngine;
+import com.paycanvas.api.service.payroll.PremiumPayEngine.PremiumBreakdown;
+import com.paycanvas.api.service.payroll.PremiumPayEngine.Shift;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 月次給与の時間外手当（overtime_hours / overtime_pay）を算出するサービスクラスです。
+ *
+ * <p>対象月の勤怠を企業単位で1回のクエリで読み込み、従業員ごとに{@link PremiumPayEngine}で
+ * 割増対象時間を集計して t_monthly_payrolls に一括反映します。
+ * 総支給額（gross_pay）・差引支給額（net_pay）は同じUPDATEで時間外手当の差額分を加減し、
+ * 他の支給・控除項目との整合を保ちます。</p>
+ */
+@Service
+public class PayrollOvertimeService {
+  /** 1日の所定労働時間（時間） */
+  private static final int SCHEDULED_HOURS_PER_DAY = 8;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final BusinessCalendarService businessCalendarService;
+
+  /**
+   * PayrollOvertimeServiceのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param businessCalendarService 営業カレンダーサービス
+   */
+  public PayrollOvertimeService(
+      JdbcTemplate jdbcTemplate, BusinessCalendarService businessCalendarService) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.businessCalendarService = businessCalendarService;
+  }
+
+  /**
+   * 指定企業・対象月の時間外手当を算出し、月次給与へ反映します。
+   * 月次給与の行が存在しない従業員は更新対象外です。
+   *
+   * @param companyId 企業ID
+   * @param month 対象月
+   * @return 更新した月次給与の件数
+   */
+  @Transactional
+  public int applyOvertime(Integer companyId, YearMonth month) {
+    Map<Integer, EmployeeTerms> terms = loadEmployeeTerms(companyId, month);
+    CalendarView calendar = businessCalendarService.view(companyId, null);
+    Predicate<LocalDate> legalHoliday = calendar::isLegalHoliday;
+    PremiumPayEngine engine = new PremiumPayEngine();
+    List<Object[]> updates = new ArrayList<>();
+
+    List<Shift> shifts = new ArrayList<>();
+    int[] currentEmployee = {-1};
+    jdbcTemplate.query(
+        "SELECT employee_id, work_date, check_in, check_out, work_hours"
+            + " FROM t_daily_attendances"
+            + " WHERE company_id = ? AND work_date >= ? AND work_date < ?"
+            + " AND check_in IS NOT NULL AND check_out IS NOT NULL"
+            + " ORDER BY employee_id, work_date, check_in",
+        rs -> {
+          int employeeId = rs.getInt("employee_id");
+          if (employeeId != currentEmployee[0]) {
+            addUpdate(updates, engine, terms.get(currentEmployee[0]), shifts, legalHoliday, month);
+            shifts.clear();
+            currentEmployee[0] = employeeId;
+          }
+          Integer workHours = rs.getObject("work_hours", Integer.class);
+          shifts.add(
+              Shift.of(
+                  rs.getDate("work_date").toLocalDate(),
+                  rs.getTime("check_in").toLocalTime(),
+                  rs.getTime("check_out").toLocalTime(),
+                  workHours));
+        },
+        companyId,
+        month.atDay(1),
+        month.plusMonths(1).atDay(1));
+    addUpdate(updates, engine, terms.get(currentEmployee[0]), shifts, legalHoliday, month);
+
+    if (updates.isEmpty()) {
+      return 0;
+    }
+    int[] counts =
+        jdbcTemplate.batchUpdate(
+            // SET句の右辺は更新前の値を参照するため、旧時間外手当との差額で総支給額・差引支給額を再計算する
+            "UPDATE t_monthly_payrolls SET overtime_hours = ?, overtime_pay = ?,"
+                + " gross_pay = gross_pay - COALESCE(overtime_pay, 0) + ?,"
+                + " net_pay = net_pay - COALESCE(overtime_pay, 0) + ?"
+                + " WHERE employee_id = ? AND target_year_month = ?",
+            updates);
+    int updated = 0;
+    for (int count : counts) {
+      updated += Math.max(count, 0);
+    }
+    return updated;
+  }
+
+  private void addUpdate(
+      List<Object[]> updates,
+      PremiumPayEngine engine,
+      EmployeeTerms terms,
+      List<Shift> shifts,
+      Predicate<LocalDate> legalHoliday,
+      YearMonth month) {
+    if (terms == null || shifts.isEmpty()) {
+      return;
+    }
+    PremiumBreakdown breakdown =
+        engine.calculate(shifts, legalHoliday, terms.fixedOvertimeMinutes(), terms.hourlyRate());
+    BigDecimal overtimeHours =
+        BigDecimal.valueOf(breakdown.legalOvertimeMinutes())
+            .divide(BigDecimal.valueOf(60), 1, RoundingMode.HALF_UP);
+    int overtimePay = breakdown.overtimePay();
+    updates.add(
+        new Object[] {
+          overtimeHours, overtimePay, overtimePay, overtimePay, terms.employeeId(), month.toString()
+        });
+  }
+
+  private Map<Integer, EmployeeTerms> loadEmployeeTerms(Integer companyId, YearMonth month) {
+    Map<Integer, EmployeeTerms> terms = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT e.id, COALESCE(e.fixed_overtime_minutes, 0) AS fixed_overtime_minutes,"
+            + " COALESCE(t.base_salary, 0) AS base_salary, COALESCE(t.monthly_days_off, 0) AS monthly_days_off"
+            + " FROM m_employees e"
+            + " LEFT JOIN m_salary_tiers t ON t.id = e.salary_tier_id"
+            + " WHERE e.company_id = ?",
+        rs -> {
+          int scheduledDays = Math.max(1, month.lengthOfMonth() - rs.getInt("monthly_days_off"));
+          double hourlyRate =
+              (double) rs.getInt("base_salary") / (scheduledDays * SCHEDULED_HOURS_PER_DAY);
+          terms.put(
+              rs.getInt("id"),
+              new EmployeeTerms(rs.getInt("id"), rs.getInt("fixed_overtime_minutes"), hourlyRate));
+        },
+        companyId);
+    return terms;
+  }
+
+  private record EmployeeTerms(int employeeId, int fixedOvertimeMinutes, double hourlyRate) {}
+}
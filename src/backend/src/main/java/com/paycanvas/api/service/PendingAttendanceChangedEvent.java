@@ -0,0 +1,10 @@
+package com.paycanvas.api.service;
+
+/**
+ * 勤怠の承認・差戻し・取込により、企業の勤怠未承認件数が増減したことを通知するイベントです。
+ * トランザクションのコミット後に{@link PendingAttendanceCounter}へ増減を反映します。
+ *
+ * @param companyId 企業ID
+ * @param delta 未承認件数の増減数
+ */
+public record PendingAttendanceChangedEvent(Integer companyId, long delta) {}
@@ -0,0 +1,121 @@
+package com.paycanvas.api.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 企業ごとの勤怠未承認件数（status &lt;&gt; '承認済'）をメモリ上で保持するカウンターです。
+ *
+ * <p>初回参照時のみ件数をDBから取得し、以降は承認・差戻し等の更新結果から得た増減を反映します。
+ * 増減は{@link PendingAttendanceChangedEvent}で更新元のトランザクションのコミット後に反映し、
+ * ロールバックされた更新でカウンターがずれないようにします。
+ * 他ノードでの更新を取り込むため、TTL経過後の参照時に再取得します。</p>
+ */
+@Component
+public class PendingAttendanceCounter {
+  private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final long ttlNanos;
+  private final Map<Integer, Entry> counters = new ConcurrentHashMap<>();
+
+  /**
+   * PendingAttendanceCounterのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param eventPublisher 件数増減イベントの発行者
+   * @param ttlSeconds 件数を再取得するまでの秒数
+   */
+  public PendingAttendanceCounter(
+      JdbcTemplate jdbcTemplate,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${paycanvas.cache.pending-attendance-ttl-seconds:300}") long ttlSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.eventPublisher = eventPublisher;
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+  }
+
+  /**
+   * 指定企業の未承認件数を取得します。
+   *
+   * @param companyId 企業ID
+   * @return 未承認件数
+   */
+  public long get(Integer companyId) {
+    return entry(companyId).count().get();
+  }
+
+  /**
+   * 指定企業の未承認件数の増減を、呼び出し元のトランザクションのコミット後に反映します。
+   * 戻り値は反映後の見込み件数で、この時点では保持している件数を変更しません。
+   *
+   * @param companyId 企業ID
+   * @param delta 増減数
+   * @return 反映後の未承認件数
+   */
+  public long apply(Integer companyId, long delta) {
+    Entry entry = counters.get(companyId);
+    if (entry == null || isExpired(entry)) {
+      // 未保持の場合は件数を取得して返すのみとする（未コミットの更新を含むため保持しない）
+      return countFromDatabase(companyId);
+    }
+    if (delta != 0) {
+      eventPublisher.publishEvent(new PendingAttendanceChangedEvent(companyId, delta));
+    }
+    return entry.count().get() + delta;
+  }
+
+  /**
+   * 更新元のトランザクションのコミット後に、保持している件数へ増減を反映します。
+   * 未保持・期限切れの場合は次回参照時の再取得に任せます。
+   *
+   * @param event 件数増減イベント
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPendingAttendanceChanged(PendingAttendanceChangedEvent event) {
+    Entry entry = counters.get(event.companyId());
+    if (entry != null && !isExpired(entry)) {
+      entry.count().addAndGet(event.delta());
+    }
+  }
+
+  /**
+   * 指定企業のカウンターを破棄し、次回参照時に再取得させます。
+   *
+   * @param companyId 企業ID
+   */
+  public void invalidate(Integer companyId) {
+    counters.remove(companyId);
+  }
+
+  private Entry entry(Integer companyId) {
+    Entry entry = counters.get(companyId);
+    if (entry == null || isExpired(entry)) {
+      Entry loaded = new Entry(new AtomicLong(countFromDatabase(companyId)), System.nanoTime());
+      counters.put(companyId, loaded);
+      entry = loaded;
+    }
+    return entry;
+  }
+
+  private boolean isExpired(Entry entry) {
+    return System.nanoTime() - entry.loadedAt() > ttlNanos;
+  }
+
+  private long countFromDatabase(Integer companyId) {
+    Long count =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM t_daily_attendances WHERE company_id = ? AND status <> '承認済'",
+            Long.class,
+            companyId);
+    return count != null ? count : 0L;
+  }
+
+  private record Entry(AtomicLong count, long loadedAt) {}
+}
@@ -0,0 +1,255 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.model.PendingTask;
+import com.paycanvas.api.service.dashboard.PendingTaskRule;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * ダッシュボードの未対応タスクを企業ごとに判定するサービスクラスです。
+ *
+ * <p>各{@link PendingTaskRule}は専用スレッドで並列に評価し、結果は企業ごとに短いTTLで
+ * キャッシュします。スレッドプールの待ち行列は上限付きで、受け付けられなかったルールと
+ * 時間内に完了しなかったルール（評価は取り消す）は除外して応答します。
+ * 判定はインデックスのみの件数クエリ、または集計済みのカウンタ（勤怠未承認件数・勤怠異常件数）で
+ * 行います。</p>
+ */
+@Service
+public class PendingTaskService {
+  private static final Logger log = LoggerFactory.getLogger(PendingTaskService.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final PendingAttendanceCounter pendingAttendanceCounter;
+  private final List<PendingTaskRule> rules;
+  private final ExecutorService executor;
+  private final long ttlNanos;
+  private final long ruleTimeoutMillis;
+  private final int closingDueDay;
+  private final Map<Integer, Entry> cache = new ConcurrentHashMap<>();
+
+  /**
+   * PendingTaskServiceのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param pendingAttendanceCounter 勤怠未承認件数カウンター
+   * @param ttlSeconds タスク一覧のキャッシュ有効期間（秒）
+   * @param ruleTimeoutMillis ルール評価の待ち時間の上限（ミリ秒）
+   * @param closingDueDay 締め対象月の勤怠承認・給与確定の期限日（当月の日）
+   * @param threads ルール評価のスレッド数
+   * @param queueCapacity ルール評価の待ち行列の上限
+   */
+  public PendingTaskService(
+      JdbcTemplate jdbcTemplate,
+      PendingAttendanceCounter pendingAttendanceCounter,
+      @Value("${paycanvas.cache.pending-tasks-ttl-seconds:30}") long ttlSeconds,
+      @Value("${paycanvas.dashboard.task-rule-timeout-millis:200}") long ruleTimeoutMillis,
+      @Value("${paycanvas.payroll.closing-due-day:10}") int closingDueDay,
+      @Value("${paycanvas.dashboard.task-rule-threads:4}") int threads,
+      @Value("${paycanvas.dashboard.task-rule-queue-capacity:64}") int queueCapacity) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.pendingAttendanceCounter = pendingAttendanceCounter;
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    this.ruleTimeoutMillis = ruleTimeoutMillis;
+    this.closingDueDay = closingDueDay;
+    this.rules =
+        List.of(
+            this::unapprovedAttendance,
+            this::unconfirmedPayroll,
+            this::attendanceAnomalies,
+            this::missingCommuteDistances);
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "pending-task-rule-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * 指定企業の未対応タスク一覧を返します。
+   * 時間内に評価できなかったルールは除外し、その場合の結果はキャッシュしません。
+   *
+   * @param companyId 企業ID
+   * @return 未対応タスク一覧
+   */
+  public List<PendingTask> tasks(Integer companyId) {
+    Entry entry = cache.get(companyId);
+    if (entry != null && System.nanoTime() - entry.loadedAt() <= ttlNanos) {
+      return entry.tasks();
+    }
+    YearMonth closingMonth = YearMonth.now().minusMonths(1);
+    List<Future<Optional<PendingTask>>> futures = new ArrayList<>(rules.size());
+    for (PendingTaskRule rule : rules) {
+      futures.add(submit(() -> rule.evaluate(companyId, closingMonth)));
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ruleTimeoutMillis);
+    List<PendingTask> tasks = new ArrayList<>();
+    boolean complete = true;
+    for (Future<Optional<PendingTask>> future : futures) {
+      try {
+        future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS).ifPresent(tasks::add);
+      } catch (TimeoutException ex) {
+        // 放置した評価が後続のリクエストの待ち行列を埋めないよう取り消す
+        future.cancel(true);
+        complete = false;
+        log.warn("未対応タスクの判定が時間内に完了しませんでした（企業ID={}）", companyId);
+      } catch (ExecutionException ex) {
+        complete = false;
+        if (ex.getCause() instanceof RejectedExecutionException) {
+          log.warn("未対応タスクの判定が混雑のため実行されませんでした（企業ID={}）", companyId);
+        } else {
+          log.error("未対応タスクの判定に失敗しました（企業ID={}）", companyId, ex.getCause());
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        complete = false;
+        futures.forEach(pending -> pending.cancel(true));
+        break;
+      }
+    }
+    List<PendingTask> result = List.copyOf(tasks);
+    if (complete) {
+      cache.put(companyId, new Entry(result, System.nanoTime()));
+    }
+    return result;
+  }
+
+  /**
+   * 指定企業のタスク一覧のキャッシュを破棄します。
+   *
+   * @param companyId 企業ID
+   */
+  public void invalidate(Integer companyId) {
+    cache.remove(companyId);
+  }
+
+  /**
+   * ルール評価用のスレッドを停止します。
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private <T> Future<T> submit(Callable<T> task) {
+    try {
+      return executor.submit(task);
+    } catch (RejectedExecutionException ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+  }
+
+  private Optional<PendingTask> unapprovedAttendance(Integer companyId, YearMonth closingMonth) {
+    long pending = pendingAttendanceCounter.get(companyId);
+    if (pending == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new PendingTask(
+            "attendance-pending",
+            "勤怠の承認",
+            "未承認の勤怠が" + pending + "件あります",
+            Optional.of(closingDueDate())));
+  }
+
+  private Optional<PendingTask> unconfirmedPayroll(Integer companyId, YearMonth closingMonth) {
+    Long count =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM t_monthly_payrolls p"
+                + " JOIN m_employees e ON e.id = p.employee_id"
+                + " WHERE e.company_id = ? AND p.target_year_month = ? AND p.status <> 'CONFIRMED'",
+            Long.class,
+            companyId,
+            closingMonth.toString());
+    if (count == null || count == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new PendingTask(
+            "payroll-unconfirmed",
+            closingMonth.getMonthValue() + "月度給与の確定",
+            "未確定の給与明細が" + count + "件あります",
+            Optional.of(closingDueDate())));
+  }
+
+  private Optional<PendingTask> attendanceAnomalies(Integer companyId, YearMonth closingMonth) {
+    Long count =
+        jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(anomaly_count), 0) FROM t_attendance_anomaly_counters"
+                + " WHERE company_id = ? AND target_month IN (?, ?)",
+            Long.class,
+            companyId,
+            closingMonth.toString(),
+            closingMonth.plusMonths(1).toString());
+    if (count == null || count == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new PendingTask(
+            "attendance-anomalies",
+            "勤怠取込データの確認",
+            "打刻漏れ・重複などの異常が" + count + "件あります",
+            Optional.empty()));
+  }
+
+  private Optional<PendingTask> missingCommuteDistances(Integer companyId, YearMonth closingMonth) {
+    Long count =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM m_employees e"
+                + " WHERE e.company_id = ? AND e.resignation_date IS NULL AND e.store_id IS NOT NULL"
+                + " AND NOT EXISTS ("
+                + "   SELECT 1 FROM m_employee_store_distances d"
+                + "   WHERE d.employee_id = e.id AND d.store_id = e.store_id)",
+            Long.class,
+            companyId);
+    if (count == null || count == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new PendingTask(
+            "commute-distance-missing",
+            "通勤距離の登録",
+            "所属店舗までの通勤距離が未登録の従業員が" + count + "名います",
+            Optional.empty()));
+  }
+
+  private LocalDate closingDueDate() {
+    YearMonth current = YearMonth.now();
+    return current.atDay(Math.min(closingDueDay, current.lengthOfMonth()));
+  }
+
+  private record Entry(List<PendingTask> tasks, long loadedAt) {}
+}
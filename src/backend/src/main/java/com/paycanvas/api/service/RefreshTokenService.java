@@ -3,10 +3,20 @@ package com.paycanvas.api.service;
 import com.paycanvas.api.entity.RefreshToken;
 import com.paycanvas.api.entity.UserAccount;
 import com.paycanvas.api.repository.RefreshTokenRepository;
+import com.paycanvas.api.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,41 +24,61 @@ import org.springframework.transaction.annotation.Transactional;
  * リフレッシュトークンの管理を担当するサービスクラスです。
  * リフレッシュトークンの生成、検証、ローテーション機能を提供し、
  * JWTアクセストークンの更新をサポートします。
+ *
+ * <p>データベースにはトークンのSHA-256ハッシュのみを保存し、平文は発行時にクライアントへ返すだけとします。
+ * 期限切れの行は定期処理で一定件数ずつ削除します。</p>
+ *
+ * <p>ログインごとにセッションファミリーを作成し、端末ごとのセッションを独立させます。
+ * ローテーションは未使用トークンを使用済みにする条件付きUPDATEで行い、先着の1件のみが成功します。
+ * 同じトークンでの同時更新（複数タブ等）は猶予時間内であれば同じファミリーで発行し、
+ * 猶予時間後の再提示は漏洩トークンの再利用とみなしてファミリー全体を失効させます。</p>
  */
 @Service
 public class RefreshTokenService {
+  private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+  private static final int TOKEN_BYTES = 32;
+
   private final RefreshTokenRepository refreshTokenRepository;
+  private final UserRepository userRepository;
   private final Duration refreshTokenDuration;
+  private final int purgeChunkSize;
+  private final Duration reuseGrace;
+  private final SecureRandom secureRandom = new SecureRandom();
 
   /**
    * RefreshTokenServiceのコンストラクタです。
    *
    * @param refreshTokenRepository リフレッシュトークンのリポジトリ
+   * @param userRepository ユーザー情報のリポジトリ
    * @param refreshDays リフレッシュトークンの有効期限（日数）
+   * @param purgeChunkSize 期限切れトークン削除の1回あたりの件数
+   * @param reuseGraceSeconds 使用済みトークンの再提示を同時更新として許容する秒数
    */
   public RefreshTokenService(
       RefreshTokenRepository refreshTokenRepository,
-      @Value("${security.jwt.refresh-expiration-days:14}") long refreshDays) {
+      UserRepository userRepository,
+      @Value("${security.jwt.refresh-expiration-days:14}") long refreshDays,
+      @Value("${security.jwt.refresh-purge-chunk-size:1000}") int purgeChunkSize,
+      @Value("${security.jwt.refresh-reuse-grace-seconds:10}") long reuseGraceSeconds) {
     this.refreshTokenRepository = refreshTokenRepository;
+    this.userRepository = userRepository;
     this.refreshTokenDuration = Duration.ofDays(refreshDays);
+    this.purgeChunkSize = purgeChunkSize;
+    this.reuseGrace = Duration.ofSeconds(reuseGraceSeconds);
   }
 
   /**
-   * 指定されたユーザーに対してリフレッシュトークンを新規作成します。
-   * 既存のリフレッシュトークンがある場合は削除してから新しいトークンを作成します。
+   * 指定されたユーザーに対して新しいセッションファミリーのリフレッシュトークンを作成します。
+   * 他の端末のセッションには影響しません。
+   *
+   * ユーザーは参照のみ（読み込みなし）で紐付けるため、発行はINSERT文1回で完了します。
    *
-   * @param user リフレッシュトークンを作成するユーザー
-   * @return 作成されたリフレッシュトークン
+   * @param userId リフレッシュトークンを作成するユーザーのID
+   * @return 作成されたリフレッシュトークン（{@link RefreshToken#getToken()}で平文を参照可能）
    */
   @Transactional
-  public RefreshToken create(UserAccount user) {
-    refreshTokenRepository.deleteByUser_Id(user.getId());
-    RefreshToken token = new RefreshToken();
-    token.setUser(user);
-    token.setToken(UUID.randomUUID().toString());
-    token.setCreatedAt(Instant.now());
-    token.setExpiresAt(Instant.now().plus(refreshTokenDuration));
-    return refreshTokenRepository.save(token);
+  public RefreshToken create(Integer userId) {
+    return issue(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
   }
 
   /**
@@ -59,11 +89,12 @@ public class RefreshTokenService {
    * @return 有効なリフレッシュトークン
    * @throws IllegalArgumentException トークンが無効または期限切れの場合
    */
-  @Transactional(readOnly = true)
+  // 呼び出し元（トークン更新）のトランザクションに参加するため、検証失敗でロールバック専用にしない
+  @Transactional(readOnly = true, noRollbackFor = IllegalArgumentException.class)
   public RefreshToken validate(String tokenValue) {
     RefreshToken token =
         refreshTokenRepository
-            .findByToken(tokenValue)
+            .findByTokenHash(hash(tokenValue))
             .orElseThrow(() -> new IllegalArgumentException("無効なリフレッシュトークンです"));
     if (token.getExpiresAt().isBefore(Instant.now())) {
       throw new IllegalArgumentException("リフレッシュトークンの有効期限が切れています");
@@ -73,14 +104,98 @@ public class RefreshTokenService {
 
   /**
    * 既存のリフレッシュトークンをローテーションします。
-   * 古いトークンを削除し、同じユーザーに対して新しいトークンを作成します。
+   * 古いトークンを使用済みにし、同じセッションファミリーで新しいトークンを作成します。
    *
    * @param existing ローテーション対象の既存リフレッシュトークン
    * @return 新しく作成されたリフレッシュトークン
+   * @throws IllegalArgumentException トークンが再利用された、またはセッションが失効済みの場合
    */
-  @Transactional
+  @Transactional(noRollbackFor = IllegalArgumentException.class)
   public RefreshToken rotate(RefreshToken existing) {
-    refreshTokenRepository.delete(existing);
-    return create(existing.getUser());
+    Instant now = Instant.now();
+    if (refreshTokenRepository.markUsed(existing.getId(), now) == 1) {
+      return issue(existing.getUser(), existing.getFamilyId());
+    }
+    Instant usedAt =
+        refreshTokenRepository
+            .findUsedAt(existing.getId())
+            .orElseThrow(() -> new IllegalArgumentException("無効なリフレッシュトークンです"));
+    if (usedAt.plus(reuseGrace).isAfter(now)) {
+      // 同じトークンでの同時更新は正規の利用とみなし、同じファミリーで発行する
+      return issue(existing.getUser(), existing.getFamilyId());
+    }
+    // 失効処理は呼び出し元へ例外を返した後もコミットされるよう noRollbackFor を指定している
+    refreshTokenRepository.deleteAllByFamilyId(existing.getFamilyId());
+    log.warn(
+        "使用済みリフレッシュトークンの再利用を検知したためセッションを失効しました（ユーザーID: {}）",
+        existing.getUser().getId());
+    throw new IllegalArgumentException("リフレッシュトークンが再利用されました");
+  }
+
+  /**
+   * 指定されたセッションファミリーのリフレッシュトークンを削除します（端末単位のログアウト）。
+   *
+   * @param familyId セッションファミリーID
+   */
+  @Transactional
+  public void revokeFamily(String familyId) {
+    refreshTokenRepository.deleteAllByFamilyId(familyId);
+  }
+
+  /**
+   * 指定されたユーザーのリフレッシュトークンをすべて削除します。
+   *
+   * @param userId ユーザーID
+   */
+  @Transactional
+  public void revokeAll(Integer userId) {
+    refreshTokenRepository.deleteAllByUserId(userId);
+  }
+
+  /**
+   * 期限切れのリフレッシュトークンを削除します。
+   * 長時間のロックを避けるため、一定件数ごとに別トランザクションで削除します。
+   *
+   * @return 削除件数
+   */
+  @Scheduled(cron = "${security.jwt.refresh-purge-cron:0 45 * * * *}")
+  public int purgeExpired() {
+    Instant now = Instant.now();
+    int total = 0;
+    int deleted;
+    do {
+      deleted = refreshTokenRepository.deleteExpiredChunk(now, purgeChunkSize);
+      total += deleted;
+    } while (deleted == purgeChunkSize);
+    if (total > 0) {
+      log.info("期限切れのリフレッシュトークンを{}件削除しました", total);
+    }
+    return total;
+  }
+
+  private RefreshToken issue(UserAccount user, String familyId) {
+    byte[] bytes = new byte[TOKEN_BYTES];
+    secureRandom.nextBytes(bytes);
+    String tokenValue = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+    RefreshToken token = new RefreshToken();
+    token.setUser(user);
+    token.setFamilyId(familyId);
+    token.setTokenHash(hash(tokenValue));
+    token.setCreatedAt(Instant.now());
+    token.setExpiresAt(Instant.now().plus(refreshTokenDuration));
+    RefreshToken saved = refreshTokenRepository.save(token);
+    saved.setToken(tokenValue);
+    return saved;
+  }
+
+  private static String hash(String tokenValue) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(tokenValue.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256が利用できません", ex);
+    }
   }
 }
@@ -0,0 +1,92 @@
+package com.paycanvas.api.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 店舗ID→店舗名の辞書をメモリに保持するキャッシュです。
+ *
+ * <p>日次テーブルは店舗IDのみを保持するため、レスポンス生成時の店舗名解決に使用します。
+ * 店舗マスタ更新時は{@link #invalidate()}で即時破棄し、他ノードでの更新はTTL経過で反映されます。
+ * 再読込しても見つからない店舗ID（削除済み等）は同じ辞書の有効期間中は再読込しません。</p>
+ */
+@Component
+public class StoreNameCache {
+  private final JdbcTemplate jdbcTemplate;
+  private final long ttlNanos;
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * StoreNameCacheのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param ttlSeconds キャッシュの有効期間（秒）
+   */
+  public StoreNameCache(
+      JdbcTemplate jdbcTemplate,
+      @Value("${paycanvas.cache.store-name-ttl-seconds:300}") long ttlSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+  }
+
+  /**
+   * 店舗IDから店舗名を解決します。
+   *
+   * @param storeId 店舗ID
+   * @return 店舗名（未登録の場合は"-"）
+   */
+  public String nameOf(Integer storeId) {
+    if (storeId == null) {
+      return "-";
+    }
+    Snapshot current = current();
+    String name = current.names().get(storeId);
+    if (name == null && !current.missing().contains(storeId)) {
+      // 直前に登録された店舗の可能性があるため一度だけ再読込する
+      Snapshot reloaded = reload();
+      name = reloaded.names().get(storeId);
+      if (name == null) {
+        reloaded.missing().add(storeId);
+      }
+    }
+    return name != null ? name : "-";
+  }
+
+  /**
+   * キャッシュを破棄します。次回参照時に再読込されます。
+   */
+  public void invalidate() {
+    snapshot = null;
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null || System.nanoTime() - current.loadedAt() > ttlNanos) {
+      current = reload();
+    }
+    return current;
+  }
+
+  private synchronized Snapshot reload() {
+    Map<Integer, String> names = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT id, name FROM m_stores",
+        rs -> {
+          names.put(rs.getInt("id"), rs.getString("name"));
+        });
+    Snapshot loaded =
+        new Snapshot(Map.copyOf(names), ConcurrentHashMap.newKeySet(), System.nanoTime());
+    snapshot = loaded;
+    return loaded;
+  }
+
+  /** 店舗名の辞書と、その辞書で見つからなかった店舗ID（再読込を繰り返さないため） */
+  private record Snapshot(Map<Integer, String> names, Set<Integer> missing, long loadedAt) {}
+}
@@ -30,6 +30,8 @@ public class SuperAdminService {
   private final RoleRepository roleRepository;
   private final UserRoleRepository userRoleRepository;
   private final PasswordEncoder passwordEncoder;
+  private final TokenRevocationService tokenRevocationService;
+  private final RefreshTokenService refreshTokenService;
 
   /**
    * SuperAdminServiceのコンストラクタです。
@@ -39,18 +41,24 @@ public class SuperAdminService {
    * @param roleRepository ロール情報のリポジトリ
    * @param userRoleRepository ユーザーロール関連のリポジトリ
    * @param passwordEncoder パスワードエンコーダー
+   * @param tokenRevocationService アクセストークン失効サービス
+   * @param refreshTokenService リフレッシュトークン管理サービス
    */
   public SuperAdminService(
       CompanyRepository companyRepository,
       UserRepository userRepository,
       RoleRepository roleRepository,
       UserRoleRepository userRoleRepository,
-      PasswordEncoder passwordEncoder) {
+      PasswordEncoder passwordEncoder,
+      TokenRevocationService tokenRevocationService,
+      RefreshTokenService refreshTokenService) {
     this.companyRepository = companyRepository;
     this.userRepository = userRepository;
     this.roleRepository = roleRepository;
     this.userRoleRepository = userRoleRepository;
     this.passwordEncoder = passwordEncoder;
+    this.tokenRevocationService = tokenRevocationService;
+    this.refreshTokenService = refreshTokenService;
   }
 
   /**
@@ -122,6 +130,23 @@ public class SuperAdminService {
         company.getName());
   }
 
+  /**
+   * 指定されたユーザーを強制ログアウトさせます。
+   * 発行済みの全アクセストークンを失効させ、リフレッシュトークンを削除します。
+   *
+   * @param userId 対象ユーザーID
+   * @throws EntityNotFoundException 指定されたユーザーが見つからない場合
+   */
+  @Transactional
+  public void revokeUserSessions(Long userId) {
+    UserAccount user =
+        userRepository
+            .findById(userId.intValue())
+            .orElseThrow(() -> new EntityNotFoundException("ユーザーが見つかりません"));
+    tokenRevocationService.revokeUser(user.getId());
+    refreshTokenService.revokeAll(user.getId());
+  }
+
   /**
    * 利用企業を新規登録します。
    * 会社のステータスは自動的にACTIVEに設定されます。
@@ -0,0 +1,208 @@
+package com.paycanvas.api.service;
+
+import com.paycanvas.api.security.BloomFilter;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * アクセストークンの失効リストを管理するサービスクラスです。
+ *
+ * <p>失効情報は t_revoked_tokens に保存し、各ノードはメモリ上のブルームフィルタと正確な集合に
+ * 複製します。失効していないトークン（大半のリクエスト）はブルームフィルタのビット参照のみで
+ * 判定を終えます。他ノードで登録された失効は数秒間隔のポーリングで反映されます。</p>
+ */
+@Service
+public class TokenRevocationService {
+  private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+  private static final double FALSE_POSITIVE_RATE = 0.001;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Duration accessTokenDuration;
+  private final int expectedEntries;
+
+  private volatile Mirror mirror;
+  private long lastSeenId;
+
+  /**
+   * TokenRevocationServiceのコンストラクタです。
+   *
+   * @param jdbcTemplate JDBCテンプレート
+   * @param expirationMinutes アクセストークンの有効期限（分）
+   * @param expectedEntries ブルームフィルタの想定登録件数
+   */
+  public TokenRevocationService(
+      JdbcTemplate jdbcTemplate,
+      @Value("${security.jwt.expiration-minutes:60}") long expirationMinutes,
+      @Value("${paycanvas.revocation.expected-entries:10000}") int expectedEntries) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.accessTokenDuration = Duration.ofMinutes(expirationMinutes);
+    this.expectedEntries = expectedEntries;
+    this.mirror = new Mirror(new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE));
+  }
+
+  /**
+   * アプリケーション起動完了時に失効リストを読み込みます。
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    rebuild();
+  }
+
+  /**
+   * アクセストークンが失効しているかを判定します。
+   *
+   * @param jti トークンID（未設定の旧トークンはnull）
+   * @param userId ユーザーID
+   * @param issuedAt 発行日時
+   * @return 失効している場合true
+   */
+  public boolean isRevoked(String jti, Integer userId, Date issuedAt) {
+    Mirror current = mirror;
+    if (jti != null && current.bloom.mightContain(jtiKey(jti)) && current.jtis.contains(jti)) {
+      return true;
+    }
+    if (current.bloom.mightContain(userKey(userId))) {
+      Long issuedBefore = current.userIssuedBefore.get(userId);
+      return issuedBefore != null && (issuedAt == null || issuedAt.getTime() <= issuedBefore);
+    }
+    return false;
+  }
+
+  /**
+   * 指定のアクセストークンを失効させます（ログアウト）。
+   *
+   * @param jti トークンID
+   * @param expiresAt トークンの有効期限
+   */
+  public void revokeToken(String jti, Instant expiresAt) {
+    jdbcTemplate.update(
+        "INSERT INTO t_revoked_tokens (jti, expires_at) VALUES (?, ?)",
+        jti,
+        Timestamp.from(expiresAt));
+    mirror.addToken(jti);
+  }
+
+  /**
+   * 指定ユーザーに現時点までに発行された全アクセストークンを失効させます（強制ログアウト）。
+   *
+   * @param userId ユーザーID
+   */
+  public void revokeUser(Integer userId) {
+    Instant now = Instant.now();
+    jdbcTemplate.update(
+        "INSERT INTO t_revoked_tokens (user_id, issued_before, expires_at) VALUES (?, ?, ?)",
+        userId,
+        Timestamp.from(now),
+        Timestamp.from(now.plus(accessTokenDuration)));
+    mirror.addUser(userId, now.toEpochMilli());
+  }
+
+  /**
+   * 他ノードで登録された失効情報を取り込みます。
+   *
+   * <p>採番順とコミット順が前後した行を取りこぼさないよう、直近1分間に登録された行も再取得します
+   * （同じ行の再登録は冪等です）。</p>
+   */
+  @Scheduled(fixedDelayString = "${paycanvas.revocation.poll-millis:2000}")
+  public synchronized void poll() {
+    Mirror current = mirror;
+    jdbcTemplate.query(
+        """
+        SELECT id, jti, user_id, issued_before
+        FROM t_revoked_tokens
+        WHERE (id > ? OR revoked_at > CURRENT_TIMESTAMP - INTERVAL '1 minute')
+          AND expires_at > CURRENT_TIMESTAMP
+        """,
+        rs -> {
+          lastSeenId = Math.max(lastSeenId, rs.getLong("id"));
+          apply(
+              current,
+              rs.getString("jti"),
+              rs.getObject("user_id", Integer.class),
+              rs.getTimestamp("issued_before"));
+        },
+        lastSeenId);
+  }
+
+  /**
+   * 期限切れの失効情報を削除し、ブルームフィルタを作り直します。
+   * ブルームフィルタは削除に対応しないため、定期的に有効な行のみで再構築します。
+   */
+  @Scheduled(cron = "${paycanvas.revocation.rebuild-cron:0 15 * * * *}")
+  public synchronized void rebuild() {
+    int purged =
+        jdbcTemplate.update("DELETE FROM t_revoked_tokens WHERE expires_at <= CURRENT_TIMESTAMP");
+    Integer active =
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM t_revoked_tokens", Integer.class);
+    int capacity = Math.max(expectedEntries, (active != null ? active : 0) * 2);
+    Mirror rebuilt = new Mirror(new BloomFilter(capacity, FALSE_POSITIVE_RATE));
+    long[] maxId = {0};
+    jdbcTemplate.query(
+        "SELECT id, jti, user_id, issued_before FROM t_revoked_tokens",
+        rs -> {
+          maxId[0] = Math.max(maxId[0], rs.getLong("id"));
+          apply(
+              rebuilt,
+              rs.getString("jti"),
+              rs.getObject("user_id", Integer.class),
+              rs.getTimestamp("issued_before"));
+        });
+    mirror = rebuilt;
+    lastSeenId = maxId[0];
+    if (purged > 0) {
+      log.info("期限切れの失効情報を{}件削除しました（有効件数: {}）", purged, active);
+    }
+  }
+
+  private static void apply(Mirror target, String jti, Integer userId, Timestamp issuedBefore) {
+    if (jti != null) {
+      target.addToken(jti);
+    }
+    if (userId != null && issuedBefore != null) {
+      target.addUser(userId, issuedBefore.getTime());
+    }
+  }
+
+  private static String jtiKey(String jti) {
+    return "j:" + jti;
+  }
+
+  private static String userKey(Integer userId) {
+    return "u:" + userId;
+  }
+
+  /** メモリ上の失効リスト。ブルームフィルタで未失効を即判定し、ヒット時のみ正確な集合を参照する。 */
+  private static final class Mirror {
+    private final BloomFilter bloom;
+    private final Set<String> jtis = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Long> userIssuedBefore = new ConcurrentHashMap<>();
+
+    private Mirror(BloomFilter bloom) {
+      this.bloom = bloom;
+    }
+
+    private void addToken(String jti) {
+      // 正確な集合を先に更新し、ブルームフィルタがヒットした時点で必ず判定できるようにする
+      jtis.add(jti);
+      bloom.put(jtiKey(jti));
+    }
+
+    private void addUser(Integer userId, long issuedBeforeMillis) {
+      userIssuedBefore.merge(userId, issuedBeforeMillis, Math::max);
+      bloom.put(userKey(userId));
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.paycanvas.api.service.attendance;
+
+/**
+ * 勤怠の異常区分です。勤怠行の anomaly_flags には各区分のビットの論理和を保存します。
+ */
+public enum AttendanceAnomaly {
+  /** 出勤打刻のみで退勤打刻がない */
+  MISSING_CHECK_OUT(1),
+  /** 遅刻あり */
+  TARDY(2),
+  /** 同一従業員の勤務時間帯が重複している */
+  OVERLAPPING_SHIFT(4),
+  /** 勤務店舗が所属企業の店舗マスタに存在しない */
+  UNKNOWN_STORE(8);
+
+  private final int bit;
+
+  AttendanceAnomaly(int bit) {
+    this.bit = bit;
+  }
+
+  public int bit() {
+    return bit;
+  }
+
+  /**
+   * フラグに本区分のビットが含まれるかを返します。
+   *
+   * @param flags 異常フラグ
+   * @return 含まれる場合true
+   */
+  public boolean in(int flags) {
+    return (flags & bit) != 0;
+  }
+}
@@ -0,0 +1,26 @@
+package com.paycanvas.api.service.attendance;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * ルール評価の対象となる勤怠1行です。
+ *
+ * @param id 勤怠ID（新規取込行はnull）
+ * @param employeeId 従業員ID
+ * @param storeId 勤務店舗ID
+ * @param workDate 勤務日
+ * @param checkIn 出勤時刻
+ * @param checkOut 退勤時刻（出勤時刻以前の場合は翌日とみなす）
+ * @param tardyMinutes 遅刻分数
+ * @param attendanceType 勤怠区分（WORK / PAID_LEAVE / PAID_LEAVE_HALF）
+ */
+public record AttendanceRow(
+    Integer id,
+    int employeeId,
+    int storeId,
+    LocalDate workDate,
+    LocalTime checkIn,
+    LocalTime checkOut,
+    Integer tardyMinutes,
+    String attendanceType) {}
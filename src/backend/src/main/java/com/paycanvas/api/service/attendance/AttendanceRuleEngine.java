@@ -0,0 +1,94 @@
+package com.paycanvas.api.service.attendance;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * 勤怠の異常判定ルールを評価するエンジンです。
+ *
+ * <p>行単体で判定できるルール（退勤漏れ・遅刻・店舗不明）と、同一従業員の近接する行との
+ * 比較が必要なルール（勤務時間帯の重複）を評価します。重複判定は開始時刻順の走査で
+ * 終了していない行だけを保持するため、従業員ごとの行数に対してほぼ線形です。</p>
+ */
+public final class AttendanceRuleEngine {
+  private static final int MINUTES_PER_DAY = 1440;
+
+  private final IntPredicate knownStore;
+
+  /**
+   * AttendanceRuleEngineのコンストラクタです。
+   *
+   * @param knownStore 店舗IDが所属企業の店舗として登録済みかを判定する関数
+   */
+  public AttendanceRuleEngine(IntPredicate knownStore) {
+    this.knownStore = knownStore;
+  }
+
+  /**
+   * 行単体のルールを評価します。
+   *
+   * @param row 勤怠行
+   * @return 異常フラグ
+   */
+  public int evaluateRow(AttendanceRow row) {
+    int flags = 0;
+    if (!"PAID_LEAVE".equals(row.attendanceType())) {
+      if (row.checkIn() != null && row.checkOut() == null) {
+        flags |= AttendanceAnomaly.MISSING_CHECK_OUT.bit();
+      }
+      if (row.tardyMinutes() != null && row.tardyMinutes() > 0) {
+        flags |= AttendanceAnomaly.TARDY.bit();
+      }
+    }
+    if (!knownStore.test(row.storeId())) {
+      flags |= AttendanceAnomaly.UNKNOWN_STORE.bit();
+    }
+    return flags;
+  }
+
+  /**
+   * 1従業員分の勤怠行をまとめて評価します。
+   *
+   * @param rows 同一従業員の勤怠行（順不同）
+   * @return 各行の異常フラグ（rowsと同じ順序）
+   */
+  public int[] evaluateEmployee(List<AttendanceRow> rows) {
+    int[] flags = new int[rows.size()];
+    List<Interval> intervals = new ArrayList<>(rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      AttendanceRow row = rows.get(i);
+      flags[i] = evaluateRow(row);
+      if (row.checkIn() != null && row.checkOut() != null) {
+        long start = row.workDate().toEpochDay() * MINUTES_PER_DAY + minuteOfDay(row.checkIn());
+        long end = row.workDate().toEpochDay() * MINUTES_PER_DAY + minuteOfDay(row.checkOut());
+        if (end <= start) {
+          end += MINUTES_PER_DAY;
+        }
+        intervals.add(new Interval(i, start, end));
+      }
+    }
+    intervals.sort(Comparator.comparingLong(Interval::start));
+    List<Interval> active = new ArrayList<>();
+    int overlap = AttendanceAnomaly.OVERLAPPING_SHIFT.bit();
+    for (Interval interval : intervals) {
+      active.removeIf(other -> other.end() <= interval.start());
+      if (!active.isEmpty()) {
+        flags[interval.index()] |= overlap;
+        for (Interval other : active) {
+          flags[other.index()] |= overlap;
+        }
+      }
+      active.add(interval);
+    }
+    return flags;
+  }
+
+  private static int minuteOfDay(LocalTime time) {
+    return time.getHour() * 60 + time.getMinute();
+  }
+
+  private record Interval(int index, long start, long end) {}
+}
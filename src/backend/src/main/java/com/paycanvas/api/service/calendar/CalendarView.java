@@ -0,0 +1,100 @@
+package com.paycanvas.api.service.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * 企業（または店舗）単位の営業カレンダーです。
+ *
+ * <p>営業日は年単位の{@link YearBitSet}として初回参照時に構築してキャッシュするため、
+ * 給与計算の従業員×日ループ内でもDBアクセスなしにO(1)で判定できます。スレッドセーフです。</p>
+ */
+public final class CalendarView {
+  private final IntFunction<YearBitSet> workdayBuilder;
+  private final IntFunction<YearBitSet> nationalHolidays;
+  private final int legalHolidayMask;
+  private final Map<Integer, YearBitSet> workdays = new ConcurrentHashMap<>();
+
+  /**
+   * CalendarViewのコンストラクタです。
+   *
+   * @param workdayBuilder 年を受け取り、その年の営業日ビットセットを構築する関数
+   * @param nationalHolidays 年を受け取り、その年の国民の祝日ビットセットを返す関数
+   * @param legalHolidayMask 法定休日の曜日マスク（ビット位置 = ISO曜日番号 - 1）
+   */
+  public CalendarView(
+      IntFunction<YearBitSet> workdayBuilder,
+      IntFunction<YearBitSet> nationalHolidays,
+      int legalHolidayMask) {
+    this.workdayBuilder = workdayBuilder;
+    this.nationalHolidays = nationalHolidays;
+    this.legalHolidayMask = legalHolidayMask != 0 ? legalHolidayMask : dayMask(DayOfWeek.SUNDAY);
+  }
+
+  /**
+   * 営業日かどうかを判定します。
+   *
+   * @param date 日付
+   * @return 営業日の場合true
+   */
+  public boolean isWorkday(LocalDate date) {
+    return workdays(date.getYear()).get(date);
+  }
+
+  /**
+   * 法定休日かどうかを判定します。
+   *
+   * @param date 日付
+   * @return 法定休日の場合true
+   */
+  public boolean isLegalHoliday(LocalDate date) {
+    return (legalHolidayMask & dayMask(date.getDayOfWeek())) != 0;
+  }
+
+  /**
+   * 国民の祝日・休日かどうかを判定します。
+   *
+   * @param date 日付
+   * @return 祝日の場合true
+   */
+  public boolean isNationalHoliday(LocalDate date) {
+    return nationalHolidays.apply(date.getYear()).get(date);
+  }
+
+  /**
+   * 期間内の営業日数を返します。
+   *
+   * @param from 開始日
+   * @param toInclusive 終了日（この日を含む）
+   * @return 営業日数
+   */
+  public int countWorkdays(LocalDate from, LocalDate toInclusive) {
+    int count = 0;
+    for (int year = from.getYear(); year <= toInclusive.getYear(); year++) {
+      int start = year == from.getYear() ? from.getDayOfYear() : 1;
+      int end =
+          year == toInclusive.getYear()
+              ? toInclusive.getDayOfYear()
+              : LocalDate.of(year, 12, 31).getDayOfYear();
+      count += workdays(year).count(start, end);
+    }
+    return count;
+  }
+
+  /**
+   * 曜日をマスクのビットに変換します。
+   *
+   * @param dayOfWeek 曜日
+   * @return 曜日ビット
+   */
+  public static int dayMask(DayOfWeek dayOfWeek) {
+    return 1 << (dayOfWeek.getValue() - 1);
+  }
+
+  private YearBitSet workdays(int year) {
+    return workdays.computeIfAbsent(year, workdayBuilder::apply);
+  }
+}
@@ -0,0 +1,83 @@
+package com.paycanvas.api.service.calendar;
+
+import java.time.LocalDate;
+
+/**
+ * 1年分の日付を1日1ビットで表すビットセットです（ビット位置 = 年内通算日 - 1）。
+ *
+ * <p>366ビットを6ワードで保持し、判定はO(1)、期間内の件数はワード単位のビットカウントで求めます。</p>
+ */
+public final class YearBitSet {
+  private static final int WORDS = 6;
+
+  private final long[] words = new long[WORDS];
+
+  /**
+   * 指定日のビットを立てます。
+   *
+   * @param date 日付
+   */
+  public void set(LocalDate date) {
+    int index = date.getDayOfYear() - 1;
+    words[index >>> 6] |= 1L << index;
+  }
+
+  /**
+   * 指定日のビットを落とします。
+   *
+   * @param date 日付
+   */
+  public void clear(LocalDate date) {
+    int index = date.getDayOfYear() - 1;
+    words[index >>> 6] &= ~(1L << index);
+  }
+
+  /**
+   * 指定日のビットが立っているかを返します。
+   *
+   * @param date 日付
+   * @return ビットが立っている場合true
+   */
+  public boolean get(LocalDate date) {
+    int index = date.getDayOfYear() - 1;
+    return (words[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * 年内通算日 [fromDayOfYear, toDayOfYear] に立っているビット数を返します。
+   *
+   * @param fromDayOfYear 開始日（年内通算日、1起点）
+   * @param toDayOfYear 終了日（年内通算日、1起点、この日を含む）
+   * @return ビット数
+   */
+  public int count(int fromDayOfYear, int toDayOfYear) {
+    if (fromDayOfYear > toDayOfYear) {
+      return 0;
+    }
+    int from = fromDayOfYear - 1;
+    int to = toDayOfYear - 1;
+    int firstWord = from >>> 6;
+    int lastWord = to >>> 6;
+    long firstMask = -1L << (from & 63);
+    long lastMask = -1L >>> (63 - (to & 63));
+    if (firstWord == lastWord) {
+      return Long.bitCount(words[firstWord] & firstMask & lastMask);
+    }
+    int count = Long.bitCount(words[firstWord] & firstMask);
+    for (int i = firstWord + 1; i < lastWord; i++) {
+      count += Long.bitCount(words[i]);
+    }
+    return count + Long.bitCount(words[lastWord] & lastMask);
+  }
+
+  /**
+   * 複製を返します。
+   *
+   * @return 同じビットを持つ新しいビットセット
+   */
+  public YearBitSet copy() {
+    YearBitSet copy = new YearBitSet();
+    System.arraycopy(words, 0, copy.words, 0, WORDS);
+    return copy;
+  }
+}
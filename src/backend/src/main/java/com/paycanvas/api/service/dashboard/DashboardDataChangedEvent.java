@@ -0,0 +1,12 @@
+package com.paycanvas.api.service.dashboard;
+
+import java.time.YearMonth;
+
+/**
+ * ダッシュボード集計の元データ（月次給与・日次売上・勤怠など）が更新されたことを通知するイベントです。
+ * トランザクションのコミット後に該当月の集計スナップショットが再集計対象になります。
+ *
+ * @param companyId 企業ID
+ * @param month 更新された対象月
+ */
+public record DashboardDataChangedEvent(Integer companyId, YearMonth month) {}
@@ -0,0 +1,43 @@
+package com.paycanvas.api.service.dashboard;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * 企業・月単位のダッシュボード集計スナップショットです。
+ *
+ * @param companyId 企業ID
+ * @param month 対象月
+ * @param laborCost 総人件費
+ * @param totalSales 総売上
+ * @param serviceSales 技術売上
+ * @param productSales 商品売上
+ * @param pendingAttendance 勤怠未承認件数
+ * @param computedAt 集計日時
+ */
+public record DashboardSummarySnapshot(
+    Integer companyId,
+    YearMonth month,
+    long laborCost,
+    long totalSales,
+    long serviceSales,
+    long productSales,
+    long pendingAttendance,
+    LocalDateTime computedAt) {
+
+  /**
+   * 商品販売率（%、小数1桁）を返します。
+   *
+   * @return 商品販売率
+   */
+  public BigDecimal productRatio() {
+    long total = serviceSales + productSales;
+    if (total == 0) {
+      return BigDecimal.ZERO.setScale(1);
+    }
+    return BigDecimal.valueOf(productSales * 100)
+        .divide(BigDecimal.valueOf(total), 1, RoundingMode.HALF_UP);
+  }
+}
@@ -0,0 +1,22 @@
+package com.paycanvas.api.service.dashboard;
+
+import com.paycanvas.api.model.PendingTask;
+import java.time.YearMonth;
+import java.util.Optional;
+
+/**
+ * ダッシュボードの未対応タスクを判定するルールです。
+ * 各ルールはインデックスのみで完了する件数クエリ、または集計済みのカウンタで判定してください。
+ */
+@FunctionalInterface
+public interface PendingTaskRule {
+
+  /**
+   * 未対応タスクを判定します。
+   *
+   * @param companyId 企業ID
+   * @param closingMonth 締め対象月（前月）
+   * @return 対応が必要な場合はタスク
+   */
+  Optional<PendingTask> evaluate(Integer companyId, YearMonth closingMonth);
+}
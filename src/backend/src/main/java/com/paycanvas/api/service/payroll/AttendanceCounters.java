@@ -0,0 +1,90 @@
+package com.paycanvas.api.service.payroll;
+
+import java.util.Arrays;
+
+/**
+ * 企業・対象月の従業員別勤怠日数を保持するカウンタです。
+ *
+ * <p>従業員IDの昇順に並んだプリミティブ配列で保持し、従業員IDから添字を二分探索で求めます。
+ * 有給休暇は半日単位のため、日数×2の整数で保持します。</p>
+ */
+public final class AttendanceCounters {
+  private final int[] employeeIds;
+  private final int[] scheduledDays;
+  private final int[] workDays;
+  private final int[] paidLeaveHalfDays;
+  private final int[] absenceDays;
+
+  /**
+   * AttendanceCountersのコンストラクタです。各配列は同じ長さで、従業員IDの昇順であること。
+   *
+   * @param employeeIds 従業員ID
+   * @param scheduledDays 所定労働日数
+   * @param workDays 出勤日数
+   * @param paidLeaveHalfDays 有給休暇日数×2
+   * @param absenceDays 欠勤日数
+   */
+  public AttendanceCounters(
+      int[] employeeIds,
+      int[] scheduledDays,
+      int[] workDays,
+      int[] paidLeaveHalfDays,
+      int[] absenceDays) {
+    this.employeeIds = employeeIds;
+    this.scheduledDays = scheduledDays;
+    this.workDays = workDays;
+    this.paidLeaveHalfDays = paidLeaveHalfDays;
+    this.absenceDays = absenceDays;
+  }
+
+  /**
+   * 従業員数を返します。
+   *
+   * @return 従業員数
+   */
+  public int size() {
+    return employeeIds.length;
+  }
+
+  /**
+   * 従業員IDに対応する添字を返します。
+   *
+   * @param employeeId 従業員ID
+   * @return 添字（存在しない場合は負数）
+   */
+  public int indexOf(int employeeId) {
+    return Arrays.binarySearch(employeeIds, employeeId);
+  }
+
+  public int employeeId(int index) {
+    return employeeIds[index];
+  }
+
+  public int scheduledDays(int index) {
+    return scheduledDays[index];
+  }
+
+  public int workDays(int index) {
+    return workDays[index];
+  }
+
+  public int paidLeaveHalfDays(int index) {
+    return paidLeaveHalfDays[index];
+  }
+
+  public int absenceDays(int index) {
+    return absenceDays[index];
+  }
+
+  /**
+   * 日単位の件数から欠勤日数を求めます。
+   * 出勤も有給休暇もない所定労働日を欠勤とし、所定日数を超える出勤は欠勤を相殺しません。
+   *
+   * @param scheduledDays 所定労働日数
+   * @param coveredDays 出勤または有給休暇のある日数
+   * @return 欠勤日数
+   */
+  public static int absenceDays(int scheduledDays, int coveredDays) {
+    return Math.max(0, scheduledDays - coveredDays);
+  }
+}
@@ -0,0 +1,143 @@
+package com.paycanvas.api.service.payroll;
+
+import java.util.Arrays;
+
+/**
+ * 勤務日の0:00から48時間分（翌日24:00まで）を1分1ビットで表すビットマップです。
+ *
+ * <p>日跨ぎの勤務は1440分以降のビットとして表現します。
+ * 深夜帯などの時間帯判定はマスクとのAND＋ビットカウントで行います。</p>
+ */
+final class MinuteBitmap {
+  /** 表現できる分数（48時間） */
+  static final int MINUTES = 2 * 24 * 60;
+
+  private static final int WORDS = MINUTES / Long.SIZE;
+
+  private final long[] words = new long[WORDS];
+
+  /** 全ビットをクリアします。 */
+  void clear() {
+    Arrays.fill(words, 0L);
+  }
+
+  /**
+   * [from, to) の分を立てます。範囲外は切り詰めます。
+   *
+   * @param from 開始分（勤務日0:00起点）
+   * @param to 終了分（排他）
+   */
+  void set(int from, int to) {
+    apply(from, to, true);
+  }
+
+  /**
+   * [from, to) の分を落とします。範囲外は切り詰めます。
+   *
+   * @param from 開始分（勤務日0:00起点）
+   * @param to 終了分（排他）
+   */
+  void clear(int from, int to) {
+    apply(from, to, false);
+  }
+
+  /** @return 立っている分の数 */
+  int cardinality() {
+    int count = 0;
+    for (long word : words) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /**
+   * マスクとの共通部分の分数を返します。
+   *
+   * @param mask 時間帯マスク
+   * @return 共通する分数
+   */
+  int andCardinality(MinuteBitmap mask) {
+    int count = 0;
+    for (int i = 0; i < WORDS; i++) {
+      count += Long.bitCount(words[i] & mask.words[i]);
+    }
+    return count;
+  }
+
+  /**
+   * 先頭から数えて{@code n}個目に立っているビットの直後の位置を返します。
+   * [0, 戻り値) にちょうど{@code n}個のビットが含まれます。
+   *
+   * @param n ビット数
+   * @return 位置。立っているビットが{@code n}個未満の場合は{@link #MINUTES}
+   */
+  int positionAfter(int n) {
+    if (n <= 0) {
+      return 0;
+    }
+    int remaining = n;
+    for (int i = 0; i < WORDS; i++) {
+      long word = words[i];
+      int count = Long.bitCount(word);
+      if (remaining > count) {
+        remaining -= count;
+        continue;
+      }
+      for (int j = 1; j < remaining; j++) {
+        word &= word - 1;
+      }
+      return i * Long.SIZE + Long.numberOfTrailingZeros(word) + 1;
+    }
+    return MINUTES;
+  }
+
+  /**
+   * {@code from}以降でマスクと共通する分数を返します。
+   *
+   * @param mask 時間帯マスク
+   * @param from 開始位置
+   * @return 共通する分数
+   */
+  int andCardinalityFrom(MinuteBitmap mask, int from) {
+    if (from >= MINUTES) {
+      return 0;
+    }
+    int start = Math.max(0, from);
+    int firstWord = start >>> 6;
+    int count =
+        Long.bitCount(words[firstWord] & mask.words[firstWord] & (-1L << (start & 63)));
+    for (int i = firstWord + 1; i < WORDS; i++) {
+      count += Long.bitCount(words[i] & mask.words[i]);
+    }
+    return count;
+  }
+
+  private void apply(int from, int to, boolean value) {
+    int start = Math.max(0, from);
+    int end = Math.min(MINUTES, to);
+    if (start >= end) {
+      return;
+    }
+    int firstWord = start >>> 6;
+    int lastWord = (end - 1) >>> 6;
+    long firstMask = -1L << (start & 63);
+    long lastMask = -1L >>> (63 - ((end - 1) & 63));
+    if (firstWord == lastWord) {
+      update(firstWord, firstMask & lastMask, value);
+      return;
+    }
+    update(firstWord, firstMask, value);
+    for (int i = firstWord + 1; i < lastWord; i++) {
+      words[i] = value ? -1L : 0L;
+    }
+    update(lastWord, lastMask, value);
+  }
+
+  private void update(int index, long mask, boolean value) {
+    if (value) {
+      words[index] |= mask;
+    } else {
+      words[index] &= ~mask;
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package com.paycanvas.api.service.payroll;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 勤務実績から時間外・深夜・休日の割増対象時間と割増賃金を算出するエンジンです。
+ *
+ * <p>1日の勤務を分単位のビットマップ（{@link MinuteBitmap}）で表し、
+ * 深夜帯（22:00〜翌5:00）マスクとのAND・ビットカウントで各区分の時間を求めます。
+ * 内部に作業用ビットマップを持つためスレッドセーフではありません。計算処理ごとに生成してください。</p>
+ *
+ * <ul>
+ *   <li>法定時間外: 1日8時間超、または週40時間超（週は日曜起算、対象月内の勤務で判定）</li>
+ *   <li>法定休日労働: 法定休日の勤務日の全時間（時間外には含めない）</li>
+ *   <li>深夜: 22:00〜翌5:00 の勤務時間（他の割増に加算）</li>
+ *   <li>月60時間超: 法定時間外のうち月60時間を超える部分（追加割増）</li>
+ * </ul>
+ */
+public final class PremiumPayEngine {
+  /** 1日の法定労働時間（分） */
+  public static final int DAILY_LEGAL_MINUTES = 8 * 60;
+  /** 1週の法定労働時間（分） */
+  public static final int WEEKLY_LEGAL_MINUTES = 40 * 60;
+  /** 追加割増の対象となる月の時間外労働時間（分） */
+  public static final int MONTHLY_OVERTIME_THRESHOLD_MINUTES = 60 * 60;
+
+  /** 時間外労働の割増率 */
+  static final double OVERTIME_RATE = 1.25;
+  /** 深夜労働の加算割増率 */
+  static final double LATE_NIGHT_PREMIUM = 0.25;
+  /** 法定休日労働の割増率 */
+  static final double HOLIDAY_RATE = 1.35;
+  /** 月60時間超の時間外労働の加算割増率 */
+  static final double OVER_SIXTY_HOURS_PREMIUM = 0.25;
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+  private static final MinuteBitmap LATE_NIGHT_MASK = lateNightMask();
+
+  private final MinuteBitmap day = new MinuteBitmap();
+
+  /**
+   * 1回分の勤務を表すレコードです。
+   *
+   * @param workDate 勤務日
+   * @param startMinute 勤務日0:00起点の開始分
+   * @param endMinute 勤務日0:00起点の終了分（日跨ぎの場合は1440以上）
+   * @param breakMinutes 休憩時間（分）
+   */
+  public record Shift(LocalDate workDate, int startMinute, int endMinute, int breakMinutes) {
+    /**
+     * 出退勤時刻から勤務を生成します。
+     * 退勤時刻が出勤時刻以前の場合は翌日の退勤として扱います。
+     * 拘束時間が労働時間（時間単位）を上回る分を休憩時間とみなします。
+     *
+     * @param workDate 勤務日
+     * @param checkIn 出勤時刻
+     * @param checkOut 退勤時刻
+     * @param workHours 労働時間（時間、未設定の場合は休憩なし）
+     * @return 勤務
+     */
+    public static Shift of(LocalDate workDate, LocalTime checkIn, LocalTime checkOut, Integer workHours) {
+      int start = checkIn.getHour() * 60 + checkIn.getMinute();
+      int end = checkOut.getHour() * 60 + checkOut.getMinute();
+      if (end <= start) {
+        end += MINUTES_PER_DAY;
+      }
+      int breakMinutes = workHours != null ? Math.max(0, (end - start) - workHours * 60) : 0;
+      return new Shift(workDate, start, end, breakMinutes);
+    }
+  }
+
+  /**
+   * 割増区分ごとの時間と割増賃金の集計結果です。
+   *
+   * @param workedMinutes 総労働時間（分）
+   * @param legalOvertimeMinutes 法定時間外労働（分）
+   * @param lateNightMinutes 深夜労働（分）
+   * @param lateNightOvertimeMinutes 深夜労働のうち1日8時間超の部分（分）
+   * @param holidayMinutes 法定休日労働（分）
+   * @param overSixtyHoursMinutes 月60時間超の時間外労働（分）
+   * @param paidOvertimeMinutes 固定残業時間を超えて支給対象となる時間外労働（分）
+   * @param overtimePay 割増賃金（円）
+   */
+  public record PremiumBreakdown(
+      int workedMinutes,
+      int legalOvertimeMinutes,
+      int lateNightMinutes,
+      int lateNightOvertimeMinutes,
+      int holidayMinutes,
+      int overSixtyHoursMinutes,
+      int paidOvertimeMinutes,
+      int overtimePay) {}
+
+  /**
+   * 1名分・1ヶ月分の勤務から割増対象時間と割増賃金を算出します。
+   *
+   * @param shifts 勤務日の昇順に並んだ勤務リスト（同日の複数勤務可）
+   * @param legalHoliday 法定休日の判定
+   * @param fixedOvertimeMinutes 固定残業時間（分）。この時間までの時間外労働は基本給に含まれる
+   * @param hourlyRate 割増賃金の算定基礎となる1時間当たりの賃金（円）
+   * @return 集計結果
+   */
+  public PremiumBreakdown calculate(
+      List<Shift> shifts,
+      Predicate<LocalDate> legalHoliday,
+      int fixedOvertimeMinutes,
+      double hourlyRate) {
+    int worked = 0;
+    int legalOvertime = 0;
+    int lateNight = 0;
+    int lateNightOvertime = 0;
+    int holiday = 0;
+
+    LocalDate currentWeek = null;
+    int weeklyRegular = 0;
+
+    int index = 0;
+    while (index < shifts.size()) {
+      LocalDate date = shifts.get(index).workDate();
+      day.clear();
+      while (index < shifts.size() && shifts.get(index).workDate().equals(date)) {
+        mark(shifts.get(index++));
+      }
+
+      int dayWorked = day.cardinality();
+      worked += dayWorked;
+      lateNight += day.andCardinality(LATE_NIGHT_MASK);
+
+      if (legalHoliday.test(date)) {
+        holiday += dayWorked;
+        continue;
+      }
+
+      int dailyOvertime = Math.max(0, dayWorked - DAILY_LEGAL_MINUTES);
+      if (dailyOvertime > 0) {
+        int overtimeStart = day.positionAfter(DAILY_LEGAL_MINUTES);
+        lateNightOvertime += day.andCardinalityFrom(LATE_NIGHT_MASK, overtimeStart);
+      }
+
+      LocalDate week = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+      if (!week.equals(currentWeek)) {
+        currentWeek = week;
+        weeklyRegular = 0;
+      }
+      int regular = dayWorked - dailyOvertime;
+      int weeklyOvertime = Math.min(regular, Math.max(0, weeklyRegular + regular - WEEKLY_LEGAL_MINUTES));
+      weeklyRegular += regular - weeklyOvertime;
+
+      legalOvertime += dailyOvertime + weeklyOvertime;
+    }
+
+    int overSixtyHours = Math.max(0, legalOvertime - MONTHLY_OVERTIME_THRESHOLD_MINUTES);
+    int paidOvertime = Math.max(0, legalOvertime - Math.max(0, fixedOvertimeMinutes));
+    double premiumMinutes =
+        paidOvertime * OVERTIME_RATE
+            + lateNight * LATE_NIGHT_PREMIUM
+            + holiday * HOLIDAY_RATE
+            + overSixtyHours * OVER_SIXTY_HOURS_PREMIUM;
+    int overtimePay = (int) Math.round(hourlyRate * premiumMinutes / 60.0);
+
+    return new PremiumBreakdown(
+        worked,
+        legalOvertime,
+        lateNight,
+        lateNightOvertime,
+        holiday,
+        overSixtyHours,
+        paidOvertime,
+        overtimePay);
+  }
+
+  /**
+   * 勤務をビットマップに反映します。休憩は勤務時間の中央で取得したものとみなします。
+   */
+  private void mark(Shift shift) {
+    day.set(shift.startMinute(), shift.endMinute());
+    if (shift.breakMinutes() > 0) {
+      int breakStart = (shift.startMinute() + shift.endMinute() - shift.breakMinutes()) / 2;
+      day.clear(breakStart, breakStart + shift.breakMinutes());
+    }
+  }
+
+  private static MinuteBitmap lateNightMask() {
+    MinuteBitmap mask = new MinuteBitmap();
+    mask.set(0, 5 * 60);
+    mask.set(22 * 60, MINUTES_PER_DAY + 5 * 60);
+    mask.set(MINUTES_PER_DAY + 22 * 60, MinuteBitmap.MINUTES);
+    return mask;
+  }
+}
@@ -0,0 +1,189 @@
+-- ==================================================================
+-- V32: 日次テーブルの月次レンジパーティション化
+-- ==================================================================
+-- 目的: 月単位の給与計算・ダッシュボード集計で参照範囲を1パーティションに限定
+-- 対象: t_daily_attendances / t_daily_store_metrics / t_daily_personal_metrics
+-- 方針:
+--   - 既存テーブルを *_legacy にリネームし、同一カラム構成の宣言的パーティション表へ移行
+--   - 主キーはパーティションキーを含む (id, 日付) に変更（id は従来のシーケンスを継続利用）
+--   - 範囲外データは DEFAULT パーティションで受け、月次パーティション作成時に移送
+--   - 将来月のパーティションは ensure_monthly_partitions() でアプリ側から定期作成
+-- ==================================================================
+
+-- ------------------------------------------------------------------
+-- 月次パーティション作成関数
+-- p_from〜p_to を含む各月のパーティションを作成し、作成数を返す。
+-- DEFAULT パーティションに該当月の行が残っている場合は新パーティションへ移送してから ATTACH する。
+-- ------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(
+    p_parent TEXT,
+    p_column TEXT,
+    p_from DATE,
+    p_to DATE
+) RETURNS INTEGER AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_from)::date;
+    v_last DATE := date_trunc('month', p_to)::date;
+    v_end DATE;
+    v_name TEXT;
+    v_default TEXT := p_parent || '_default';
+    v_created INTEGER := 0;
+BEGIN
+    WHILE v_start <= v_last LOOP
+        v_end := (v_start + INTERVAL '1 month')::date;
+        v_name := p_parent || '_' || to_char(v_start, 'YYYYMM');
+        IF to_regclass(v_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                v_name, p_parent);
+            IF to_regclass(v_default) IS NOT NULL THEN
+                EXECUTE format(
+                    'WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *)'
+                        || ' INSERT INTO %I SELECT * FROM moved',
+                    v_default, p_column, v_start, p_column, v_end, v_name);
+            END IF;
+            EXECUTE format(
+                'ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                p_parent, v_name, v_start, v_end);
+            v_created := v_created + 1;
+        END IF;
+        v_start := v_end;
+    END LOOP;
+    RETURN v_created;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION ensure_monthly_partitions(TEXT, TEXT, DATE, DATE)
+    IS '指定期間の月次パーティションを作成（既存はスキップ、DEFAULTからの移送あり）';
+
+-- ------------------------------------------------------------------
+-- t_daily_attendances
+-- ------------------------------------------------------------------
+ALTER TABLE t_daily_attendances RENAME TO t_daily_attendances_legacy;
+ALTER TABLE t_daily_attendances_legacy
+    RENAME CONSTRAINT t_daily_attendances_pkey TO t_daily_attendances_legacy_pkey;
+
+CREATE TABLE t_daily_attendances (
+    id INTEGER NOT NULL DEFAULT nextval('t_daily_attendances_id_seq'),
+    employee_id INTEGER NOT NULL REFERENCES m_employees(id),
+    store_name VARCHAR(255) NOT NULL,
+    work_date DATE NOT NULL,
+    check_in TIME,
+    check_out TIME,
+    work_hours INTEGER,
+    tardy_minutes INTEGER,
+    status VARCHAR(20) NOT NULL,
+    CONSTRAINT t_daily_attendances_pkey PRIMARY KEY (id, work_date)
+) PARTITION BY RANGE (work_date);
+
+CREATE TABLE t_daily_attendances_default PARTITION OF t_daily_attendances DEFAULT;
+
+SELECT ensure_monthly_partitions(
+    't_daily_attendances', 'work_date',
+    COALESCE((SELECT MIN(work_date) FROM t_daily_attendances_legacy), CURRENT_DATE),
+    (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO t_daily_attendances (
+    id, employee_id, store_name, work_date, check_in, check_out, work_hours, tardy_minutes, status
+)
+SELECT id, employee_id, store_name, work_date, check_in, check_out, work_hours, tardy_minutes, status
+FROM t_daily_attendances_legacy;
+
+ALTER SEQUENCE t_daily_attendances_id_seq OWNED BY t_daily_attendances.id;
+DROP TABLE t_daily_attendances_legacy;
+
+CREATE INDEX IF NOT EXISTS idx_daily_attendances_employee_date
+    ON t_daily_attendances(employee_id, work_date);
+
+-- 勤怠未承認件数（status <> '承認済'）は部分インデックスで承認済行を除外
+CREATE INDEX IF NOT EXISTS idx_daily_attendances_pending
+    ON t_daily_attendances(work_date)
+    WHERE status <> '承認済';
+
+-- ------------------------------------------------------------------
+-- t_daily_store_metrics
+-- ------------------------------------------------------------------
+ALTER TABLE t_daily_store_metrics RENAME TO t_daily_store_metrics_legacy;
+ALTER TABLE t_daily_store_metrics_legacy
+    RENAME CONSTRAINT t_daily_store_metrics_pkey TO t_daily_store_metrics_legacy_pkey;
+
+CREATE TABLE t_daily_store_metrics (
+    id INTEGER NOT NULL DEFAULT nextval('t_daily_store_metrics_id_seq'),
+    company_id INTEGER NOT NULL REFERENCES m_companies(id),
+    store_name VARCHAR(255) NOT NULL,
+    metric_date DATE NOT NULL,
+    gross_sales INTEGER NOT NULL,
+    discount_total INTEGER NOT NULL,
+    total_hours INTEGER NOT NULL,
+    CONSTRAINT t_daily_store_metrics_pkey PRIMARY KEY (id, metric_date)
+) PARTITION BY RANGE (metric_date);
+
+CREATE TABLE t_daily_store_metrics_default PARTITION OF t_daily_store_metrics DEFAULT;
+
+SELECT ensure_monthly_partitions(
+    't_daily_store_metrics', 'metric_date',
+    COALESCE((SELECT MIN(metric_date) FROM t_daily_store_metrics_legacy), CURRENT_DATE),
+    (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO t_daily_store_metrics (
+    id, company_id, store_name, metric_date, gross_sales, discount_total, total_hours
+)
+SELECT id, company_id, store_name, metric_date, gross_sales, discount_total, total_hours
+FROM t_daily_store_metrics_legacy;
+
+ALTER SEQUENCE t_daily_store_metrics_id_seq OWNED BY t_daily_store_metrics.id;
+DROP TABLE t_daily_store_metrics_legacy;
+
+CREATE INDEX IF NOT EXISTS idx_daily_store_metrics_company_date
+    ON t_daily_store_metrics(company_id, metric_date);
+
+-- ------------------------------------------------------------------
+-- t_daily_personal_metrics
+-- ------------------------------------------------------------------
+ALTER TABLE t_daily_personal_metrics RENAME TO t_daily_personal_metrics_legacy;
+ALTER TABLE t_daily_personal_metrics_legacy
+    RENAME CONSTRAINT t_daily_personal_metrics_pkey TO t_daily_personal_metrics_legacy_pkey;
+
+CREATE TABLE t_daily_personal_metrics (
+    id INTEGER NOT NULL DEFAULT nextval('t_daily_personal_metrics_id_seq'),
+    employee_id INTEGER NOT NULL REFERENCES m_employees(id),
+    metric_date DATE NOT NULL,
+    service_sales INTEGER NOT NULL,
+    product_sales INTEGER NOT NULL,
+    CONSTRAINT t_daily_personal_metrics_pkey PRIMARY KEY (id, metric_date)
+) PARTITION BY RANGE (metric_date);
+
+CREATE TABLE t_daily_personal_metrics_default PARTITION OF t_daily_personal_metrics DEFAULT;
+
+SELECT ensure_monthly_partitions(
+    't_daily_personal_metrics', 'metric_date',
+    COALESCE((SELECT MIN(metric_date) FROM t_daily_personal_metrics_legacy), CURRENT_DATE),
+    (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO t_daily_personal_metrics (
+    id, employee_id, metric_date, service_sales, product_sales
+)
+SELECT id, employee_id, metric_date, service_sales, product_sales
+FROM t_daily_personal_metrics_legacy;
+
+ALTER SEQUENCE t_daily_personal_metrics_id_seq OWNED BY t_daily_personal_metrics.id;
+DROP TABLE t_daily_personal_metrics_legacy;
+
+CREATE INDEX IF NOT EXISTS idx_daily_personal_metrics_employee_date
+    ON t_daily_personal_metrics(employee_id, metric_date);
+
+-- ==================================================================
+-- 運用メモ
+-- ==================================================================
+-- パーティションプルーニングを効かせるため、クエリは日付カラムに対して
+--   work_date >= :monthStart AND work_date < :nextMonthStart
+-- の形式で範囲指定すること（date_trunc 等で列を加工すると全パーティション走査になる）。
+--
+-- 古い月の切り離し（ロック時間はメタデータ更新のみ）:
+--   ALTER TABLE t_daily_attendances DETACH PARTITION t_daily_attendances_202401 CONCURRENTLY;
+--
+-- 確認:
+--   EXPLAIN SELECT COUNT(*) FROM t_daily_attendances
+--   WHERE work_date >= DATE '2024-04-01' AND work_date < DATE '2024-05-01';
+--   → t_daily_attendances_202404 のみが走査対象となること
+-- ==================================================================
@@ -0,0 +1,76 @@
+-- ==================================================================
+-- V33: 日次テーブルの店舗名（文字列）を店舗ID外部キーへ置換
+-- ==================================================================
+-- 目的: 店舗別集計を整数結合にし、m_stores の店舗名変更に追従させる
+-- 対象: t_daily_attendances / t_daily_store_metrics
+-- 方針: V7（m_employees.store_name → store_id）と同様に store_id を補完後、store_name を削除
+-- ==================================================================
+
+-- ------------------------------------------------------------------
+-- t_daily_attendances: company_id / store_id を追加
+-- ------------------------------------------------------------------
+ALTER TABLE t_daily_attendances
+    ADD COLUMN IF NOT EXISTS company_id INTEGER REFERENCES m_companies(id),
+    ADD COLUMN IF NOT EXISTS store_id INTEGER REFERENCES m_stores(id);
+
+UPDATE t_daily_attendances a
+SET company_id = e.company_id
+FROM m_employees e
+WHERE a.company_id IS NULL
+  AND e.id = a.employee_id;
+
+-- 店舗マスタに存在しない店舗名は、データを失わないよう店舗マスタへ登録してから紐付ける
+INSERT INTO m_stores (company_id, name)
+SELECT DISTINCT a.company_id, a.store_name
+FROM t_daily_attendances a
+WHERE a.store_name IS NOT NULL
+  AND NOT EXISTS (
+    SELECT 1 FROM m_stores s WHERE s.company_id = a.company_id AND s.name = a.store_name
+  );
+
+UPDATE t_daily_attendances a
+SET store_id = s.id
+FROM m_stores s
+WHERE a.store_id IS NULL
+  AND s.company_id = a.company_id
+  AND s.name = a.store_name;
+
+ALTER TABLE t_daily_attendances
+    ALTER COLUMN company_id SET NOT NULL,
+    ALTER COLUMN store_id SET NOT NULL,
+    DROP COLUMN IF EXISTS store_name;
+
+CREATE INDEX IF NOT EXISTS idx_daily_attendances_company_store_date
+    ON t_daily_attendances(company_id, store_id, work_date);
+
+-- ------------------------------------------------------------------
+-- t_daily_store_metrics: store_id を追加
+-- ------------------------------------------------------------------
+ALTER TABLE t_daily_store_metrics
+    ADD COLUMN IF NOT EXISTS store_id INTEGER REFERENCES m_stores(id);
+
+INSERT INTO m_stores (company_id, name)
+SELECT DISTINCT m.company_id, m.store_name
+FROM t_daily_store_metrics m
+WHERE m.store_name IS NOT NULL
+  AND NOT EXISTS (
+    SELECT 1 FROM m_stores s WHERE s.company_id = m.company_id AND s.name = m.store_name
+  );
+
+UPDATE t_daily_store_metrics m
+SET store_id = s.id
+FROM m_stores s
+WHERE m.store_id IS NULL
+  AND s.company_id = m.company_id
+  AND s.name = m.store_name;
+
+ALTER TABLE t_daily_store_metrics
+    ALTER COLUMN store_id SET NOT NULL,
+    DROP COLUMN IF EXISTS store_name;
+
+CREATE INDEX IF NOT EXISTS idx_daily_store_metrics_company_store_date
+    ON t_daily_store_metrics(company_id, store_id, metric_date);
+
+COMMENT ON COLUMN t_daily_attendances.company_id IS '所属企業ID（テナント分離・集計用）';
+COMMENT ON COLUMN t_daily_attendances.store_id IS '勤務店舗ID';
+COMMENT ON COLUMN t_daily_store_metrics.store_id IS '店舗ID';
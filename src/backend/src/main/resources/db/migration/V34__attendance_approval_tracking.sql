@@ -0,0 +1,15 @@
+-- ==================================================================
+-- V34: 勤怠一括承認のための更新追跡カラム追加
+-- ==================================================================
+-- 目的: 一括承認・差戻しでの楽観的チェック（一覧取得後に更新された行を除外）と承認者記録
+-- 対象: t_daily_attendances（パーティション親に追加し全パーティションへ伝播）
+-- ==================================================================
+
+ALTER TABLE t_daily_attendances
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    ADD COLUMN IF NOT EXISTS approved_by INTEGER REFERENCES m_users(id),
+    ADD COLUMN IF NOT EXISTS approved_at TIMESTAMP;
+
+COMMENT ON COLUMN t_daily_attendances.updated_at IS '最終更新日時（一括承認時の楽観的チェックに使用）';
+COMMENT ON COLUMN t_daily_attendances.approved_by IS '承認・差戻しを行ったユーザーID';
+COMMENT ON COLUMN t_daily_attendances.approved_at IS '承認・差戻し日時';
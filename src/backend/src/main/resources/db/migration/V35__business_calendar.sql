@@ -0,0 +1,42 @@
+-- ==================================================================
+-- V35: 営業カレンダー（企業・店舗の定休日と臨時休業／臨時営業）
+-- ==================================================================
+-- 目的: 出勤日数・欠勤日数・休日割増の判定に使う営業日をメモリ上のビットセットで保持するための元データ
+-- 国民の祝日はアプリ同梱のリソース（calendar/jp-national-holidays.csv）から読み込む
+-- ==================================================================
+
+-- 曜日ごとの定休日（store_id が NULL の場合は企業全体に適用）
+CREATE TABLE IF NOT EXISTS m_weekly_closures (
+    id SERIAL PRIMARY KEY,
+    company_id INTEGER NOT NULL REFERENCES m_companies(id),
+    store_id INTEGER REFERENCES m_stores(id) ON DELETE CASCADE,
+    day_of_week SMALLINT NOT NULL CHECK (day_of_week BETWEEN 1 AND 7),
+    is_legal_holiday BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_weekly_closures
+    ON m_weekly_closures(company_id, COALESCE(store_id, 0), day_of_week);
+
+-- 日付単位の上書き（company_id が NULL の場合は国民の祝日リソースの補正）
+CREATE TABLE IF NOT EXISTS m_calendar_overrides (
+    id SERIAL PRIMARY KEY,
+    company_id INTEGER REFERENCES m_companies(id),
+    store_id INTEGER REFERENCES m_stores(id) ON DELETE CASCADE,
+    target_date DATE NOT NULL,
+    is_closed BOOLEAN NOT NULL,
+    description VARCHAR(255)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_calendar_overrides
+    ON m_calendar_overrides(COALESCE(company_id, 0), COALESCE(store_id, 0), target_date);
+
+-- 美容室は祝日営業が一般的なため、祝日を休業日とするかは企業単位で選択する
+ALTER TABLE m_companies
+    ADD COLUMN IF NOT EXISTS closed_on_national_holidays BOOLEAN NOT NULL DEFAULT FALSE;
+
+COMMENT ON COLUMN m_companies.closed_on_national_holidays IS '国民の祝日を休業日とするか';
+COMMENT ON TABLE m_weekly_closures IS '曜日定休日マスタ';
+COMMENT ON COLUMN m_weekly_closures.day_of_week IS '曜日（ISO-8601: 1=月曜〜7=日曜）';
+COMMENT ON COLUMN m_weekly_closures.is_legal_holiday IS '法定休日として扱うか（休日割増の判定に使用、未設定の企業は日曜）';
+COMMENT ON TABLE m_calendar_overrides IS '営業カレンダー上書きマスタ（臨時休業・臨時営業・祝日補正）';
+COMMENT ON COLUMN m_calendar_overrides.is_closed IS 'TRUE: 休業日 / FALSE: 営業日（祝日・定休日でも営業）';
@@ -0,0 +1,14 @@
+-- ==================================================================
+-- V36: 勤怠区分の追加
+-- ==================================================================
+-- 目的: 月次給与の出勤日数・有給休暇日数・欠勤日数を日次勤怠から集計するため、
+--       出勤と有給休暇（全日・半日）を区別する
+-- 対象: t_daily_attendances（親テーブルへの追加で全パーティションに反映）
+-- ==================================================================
+
+ALTER TABLE t_daily_attendances
+    ADD COLUMN IF NOT EXISTS attendance_type VARCHAR(20) NOT NULL DEFAULT 'WORK'
+        CHECK (attendance_type IN ('WORK', 'PAID_LEAVE', 'PAID_LEAVE_HALF'));
+
+COMMENT ON COLUMN t_daily_attendances.attendance_type
+    IS '勤怠区分: WORK（出勤）/ PAID_LEAVE（有給休暇）/ PAID_LEAVE_HALF（半日有給、残り半日は出勤）';
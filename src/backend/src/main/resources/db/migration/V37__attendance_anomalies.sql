@@ -0,0 +1,63 @@
+-- ==================================================================
+-- V37: 勤怠の異常フラグと企業別異常件数カウンタ
+-- ==================================================================
+-- 目的: 取込・編集時にルール評価した結果を保存し、ダッシュボードや給与計算前チェックが
+--       t_daily_attendances を再走査せずに件数を参照できるようにする
+-- フラグ: 1=退勤打刻漏れ / 2=遅刻 / 4=勤務時間帯の重複 / 8=店舗不明（ビットの論理和）
+-- ==================================================================
+
+ALTER TABLE t_daily_attendances
+    ADD COLUMN IF NOT EXISTS anomaly_flags INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS t_attendance_anomaly_counters (
+    company_id INTEGER NOT NULL REFERENCES m_companies(id),
+    target_month CHAR(7) NOT NULL,
+    anomaly_code VARCHAR(30) NOT NULL,
+    anomaly_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (company_id, target_month, anomaly_code)
+);
+
+-- ------------------------------------------------------------------
+-- 既存データのフラグを一括算出
+-- ------------------------------------------------------------------
+UPDATE t_daily_attendances a
+SET anomaly_flags =
+      (CASE WHEN a.attendance_type <> 'PAID_LEAVE'
+                 AND a.check_in IS NOT NULL AND a.check_out IS NULL THEN 1 ELSE 0 END)
+    | (CASE WHEN a.attendance_type <> 'PAID_LEAVE'
+                 AND COALESCE(a.tardy_minutes, 0) > 0 THEN 2 ELSE 0 END)
+    | (CASE WHEN a.check_in IS NOT NULL AND a.check_out IS NOT NULL AND EXISTS (
+            SELECT 1 FROM t_daily_attendances b
+            WHERE b.employee_id = a.employee_id
+              AND b.id <> a.id
+              AND b.work_date BETWEEN a.work_date - 1 AND a.work_date + 1
+              AND b.check_in IS NOT NULL AND b.check_out IS NOT NULL
+              AND tsrange(a.work_date + a.check_in,
+                          a.work_date + a.check_out
+                              + CASE WHEN a.check_out <= a.check_in THEN INTERVAL '1 day' ELSE INTERVAL '0' END)
+               && tsrange(b.work_date + b.check_in,
+                          b.work_date + b.check_out
+                              + CASE WHEN b.check_out <= b.check_in THEN INTERVAL '1 day' ELSE INTERVAL '0' END)
+        ) THEN 4 ELSE 0 END)
+    | (CASE WHEN NOT EXISTS (
+            SELECT 1 FROM m_stores s WHERE s.id = a.store_id AND s.company_id = a.company_id
+        ) THEN 8 ELSE 0 END);
+
+INSERT INTO t_attendance_anomaly_counters (company_id, target_month, anomaly_code, anomaly_count)
+SELECT a.company_id, to_char(a.work_date, 'YYYY-MM'), c.code, COUNT(*)
+FROM t_daily_attendances a
+JOIN (VALUES ('MISSING_CHECK_OUT', 1), ('TARDY', 2), ('OVERLAPPING_SHIFT', 4), ('UNKNOWN_STORE', 8))
+    AS c(code, bit) ON (a.anomaly_flags & c.bit) <> 0
+GROUP BY a.company_id, to_char(a.work_date, 'YYYY-MM'), c.code
+ON CONFLICT (company_id, target_month, anomaly_code) DO UPDATE
+    SET anomaly_count = EXCLUDED.anomaly_count;
+
+-- 異常のある勤怠の一覧表示用（異常なしの行は索引に含めない）
+CREATE INDEX IF NOT EXISTS idx_daily_attendances_anomalies
+    ON t_daily_attendances(company_id, work_date)
+    WHERE anomaly_flags <> 0;
+
+COMMENT ON COLUMN t_daily_attendances.anomaly_flags
+    IS '異常フラグ（1=退勤打刻漏れ, 2=遅刻, 4=勤務時間帯の重複, 8=店舗不明 の論理和）';
+COMMENT ON TABLE t_attendance_anomaly_counters IS '企業・月別の勤怠異常件数（取込・編集時に差分更新）';
+COMMENT ON COLUMN t_attendance_anomaly_counters.anomaly_count IS '該当フラグを持つ勤怠の件数';
@@ -0,0 +1,28 @@
+-- ==================================================================
+-- V38: ダッシュボード集計のスナップショット
+-- ==================================================================
+-- 目的: ダッシュボード表示のたびに給与・売上・勤怠テーブルを集計しないよう、
+--       企業・月ごとの集計結果を保存し、主キー参照だけで表示できるようにする
+-- 方針: 元データの更新時に stale を立て、次回参照時（または定期再計算）で再集計する
+-- ==================================================================
+
+CREATE TABLE IF NOT EXISTS t_dashboard_summaries (
+    company_id INTEGER NOT NULL REFERENCES m_companies(id),
+    target_month CHAR(7) NOT NULL,
+    labor_cost BIGINT NOT NULL DEFAULT 0,
+    total_sales BIGINT NOT NULL DEFAULT 0,
+    service_sales BIGINT NOT NULL DEFAULT 0,
+    product_sales BIGINT NOT NULL DEFAULT 0,
+    pending_attendance INTEGER NOT NULL DEFAULT 0,
+    stale BOOLEAN NOT NULL DEFAULT FALSE,
+    computed_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (company_id, target_month)
+);
+
+COMMENT ON TABLE t_dashboard_summaries IS 'ダッシュボード集計スナップショット（企業・月単位）';
+COMMENT ON COLUMN t_dashboard_summaries.labor_cost IS '総人件費（月次給与の総支給額合計）';
+COMMENT ON COLUMN t_dashboard_summaries.total_sales IS '総売上（店舗日次売上の合計）';
+COMMENT ON COLUMN t_dashboard_summaries.service_sales IS '技術売上（個人日次実績の合計）';
+COMMENT ON COLUMN t_dashboard_summaries.product_sales IS '商品売上（個人日次実績の合計）';
+COMMENT ON COLUMN t_dashboard_summaries.pending_attendance IS '集計時点の勤怠未承認件数';
+COMMENT ON COLUMN t_dashboard_summaries.stale IS '元データ更新により再集計が必要か';
@@ -0,0 +1,85 @@
+-- ==================================================================
+-- V39: ダッシュボード集計の元データ変更検知
+-- ==================================================================
+-- 目的: 定期再計算（毎時）で、元データが変わった企業・月のスナップショットだけを再集計する
+-- 方針: 元テーブルの文単位トリガーで変更行の企業・月を求め、t_dashboard_summaries.stale を立てる
+--       （アプリ外からの一括取込も検知できる。行単位トリガーは大量取込時の負荷が大きいため使用しない）
+-- ==================================================================
+
+-- 引数: TG_ARGV[0] = 日付（または年月）列名
+--       TG_ARGV[1] = 'company'（行に company_id を持つ）/ 'employee'（employee_id から企業を解決）
+--       TG_ARGV[2] = 'date'（日付列）/ 'month'（yyyy-MM 文字列列）
+CREATE OR REPLACE FUNCTION mark_dashboard_summaries_stale() RETURNS TRIGGER AS $$
+DECLARE
+    v_company TEXT := CASE TG_ARGV[1]
+        WHEN 'employee' THEN '(SELECT e.company_id FROM m_employees e WHERE e.id = r.employee_id)'
+        ELSE 'r.company_id' END;
+    v_month TEXT := CASE TG_ARGV[2]
+        WHEN 'month' THEN format('r.%I', TG_ARGV[0])
+        ELSE format('to_char(r.%I, ''YYYY-MM'')', TG_ARGV[0]) END;
+    v_sources TEXT[] := CASE TG_OP
+        WHEN 'INSERT' THEN ARRAY['new_rows']
+        WHEN 'DELETE' THEN ARRAY['old_rows']
+        ELSE ARRAY['new_rows', 'old_rows'] END;
+    v_source TEXT;
+BEGIN
+    FOREACH v_source IN ARRAY v_sources LOOP
+        EXECUTE format(
+            'UPDATE t_dashboard_summaries s SET stale = TRUE'
+                || ' FROM (SELECT DISTINCT %s AS company_id, %s AS target_month FROM %I r) c'
+                || ' WHERE s.company_id = c.company_id AND s.target_month = c.target_month'
+                || ' AND NOT s.stale',
+            v_company, v_month, v_source);
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION mark_dashboard_summaries_stale()
+    IS '元データ更新時にダッシュボード集計スナップショットを再集計対象にする（文単位トリガー用）';
+
+-- ------------------------------------------------------------------
+-- t_monthly_payrolls（人件費）
+-- ------------------------------------------------------------------
+CREATE TRIGGER trg_monthly_payrolls_dashboard_ins
+    AFTER INSERT ON t_monthly_payrolls REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_dashboard_summaries_stale('target_year_month', 'employee', 'month');
+CREATE TRIGGER trg_monthly_payrolls_dashboard_upd
+    AFTER UPDATE ON t_monthly_payrolls REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_dashboard_summaries_stale('target_year_month', 'employee', 'month');
+CREATE TRIGGER trg_monthly_payrolls_dashboard_del
+    AFTER DELETE ON t_monthly_payrolls REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_dashboard_summaries_stale('target_year_month', 'employee', 'month');
+
+-- ------------------------------------------------------------------
+-- t_daily_store_metrics（売上）: パーティション表の文単位トリガーは全パーティションの変更行を受け取る
+-- ------------------------------------------------------------------
+CREATE TRIGGER trg_daily_store_metrics_dashboard_ins
+    AFTER INSERT ON t_daily_store_metrics REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_dashboard_summaries_stale('metric_date', 'company', 'date');
+CREATE TRIGGER trg_daily_store_metrics_dashboard_upd
+    AFTER UPDATE ON t_daily_store_metrics REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_dashboard_summaries_stale('metric_date', 'company', 'date');
+CREATE TRIGGER trg_daily_store_metrics_dashboard_del
+    AFTER DELETE ON t_daily_store_metrics REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_dashboard_summaries_stale('metric_date', 'company', 'date');
+
+-- ------------------------------------------------------------------
+-- t_daily_personal_metrics（商品販売率）
+-- ------------------------------------------------------------------
+CREATE TRIGGER trg_daily_personal_metrics_dashboard_ins
+    AFTER INSERT ON t_daily_personal_metrics REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_dashboard_summaries_stale('metric_date', 'employee', 'date');
+CREATE TRIGGER trg_daily_personal_metrics_dashboard_upd
+    AFTER UPDATE ON t_daily_personal_metrics REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_dashboard_summaries_stale('metric_date', 'employee', 'date');
+CREATE TRIGGER trg_daily_personal_metrics_dashboard_del
+    AFTER DELETE ON t_daily_personal_metrics REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_dashboard_summaries_stale('metric_date', 'employee', 'date');
+
+-- 定期再計算の対象抽出用（再集計対象の行のみを索引に含める）
+CREATE INDEX IF NOT EXISTS idx_dashboard_summaries_stale
+    ON t_dashboard_summaries(company_id, target_month)
+    WHERE stale;
+
+-- 勤怠未承認件数は当月分をアプリのカウンターから重ねて表示するため、勤怠テーブルにはトリガーを設けない
@@ -0,0 +1,15 @@
+-- ==================================================================
+-- V40: ダッシュボードの未対応タスク判定用インデックス
+-- ==================================================================
+-- 目的: 未対応タスクの件数判定をインデックスのみの走査で完了させる
+-- ==================================================================
+
+-- 締め月の未確定給与件数（確定済みの行は索引に含めない）
+CREATE INDEX IF NOT EXISTS idx_monthly_payrolls_unconfirmed
+    ON t_monthly_payrolls(target_year_month, employee_id)
+    WHERE status <> 'CONFIRMED';
+
+-- 在職中従業員の所属店舗（通勤距離未登録の判定で uk_employee_store_distances と突き合わせる）
+CREATE INDEX IF NOT EXISTS idx_employees_company_active_store
+    ON m_employees(company_id, id, store_id)
+    WHERE resignation_date IS NULL;
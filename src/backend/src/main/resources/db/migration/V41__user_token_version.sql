@@ -0,0 +1,53 @@
+-- ==================================================================
+-- V41: ユーザーのトークンバージョン
+-- ==================================================================
+-- 目的: 認証済みプリンシパルをメモリにキャッシュするため、ユーザーの権限に関わる変更を
+--       バージョン番号で検知できるようにする
+-- 方針:
+--   - アクセストークンに発行時の token_version を含め、キャッシュは (ユーザーID, バージョン) で保持
+--   - ステータス・所属企業・ロールの変更時にトリガーで token_version を加算
+--   - キャッシュ未ヒット時にトークンのバージョンと一致しなければ認証しない（旧トークンの失効）
+-- ==================================================================
+
+ALTER TABLE m_users
+    ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN m_users.token_version IS 'トークンバージョン（ステータス・所属企業・ロール変更時に加算）';
+
+-- ------------------------------------------------------------------
+-- m_users: ステータス・所属企業の変更
+-- ------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION bump_user_token_version() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.status IS DISTINCT FROM OLD.status
+        OR NEW.company_id IS DISTINCT FROM OLD.company_id THEN
+        NEW.token_version := OLD.token_version + 1;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_users_token_version ON m_users;
+CREATE TRIGGER trg_users_token_version
+    BEFORE UPDATE OF status, company_id ON m_users
+    FOR EACH ROW EXECUTE FUNCTION bump_user_token_version();
+
+-- ------------------------------------------------------------------
+-- m_user_roles: ロールの付与・変更・剥奪
+-- ------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION bump_user_token_version_on_role() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE m_users SET token_version = token_version + 1 WHERE id = OLD.user_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE m_users SET token_version = token_version + 1 WHERE id = NEW.user_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_user_roles_token_version ON m_user_roles;
+CREATE TRIGGER trg_user_roles_token_version
+    AFTER INSERT OR UPDATE OR DELETE ON m_user_roles
+    FOR EACH ROW EXECUTE FUNCTION bump_user_token_version_on_role();
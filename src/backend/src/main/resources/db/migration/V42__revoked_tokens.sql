@@ -0,0 +1,29 @@
+-- ==================================================================
+-- V42: アクセストークンの失効リスト
+-- ==================================================================
+-- 目的: ログアウト・強制ログアウト時に、有効期限前のアクセストークンを無効化する
+-- 方針:
+--   - トークン単位（jti）またはユーザー単位（指定日時以前に発行された全トークン）で登録
+--   - 各ノードは id の増分を数秒間隔でポーリングし、メモリ上のブルームフィルタへ反映
+--   - アクセストークンの有効期限を過ぎた行は不要となるため定期削除
+-- ==================================================================
+
+CREATE TABLE IF NOT EXISTS t_revoked_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    jti VARCHAR(64),
+    user_id INTEGER REFERENCES m_users(id) ON DELETE CASCADE,
+    issued_before TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT ck_revoked_tokens_target
+        CHECK (jti IS NOT NULL OR (user_id IS NOT NULL AND issued_before IS NOT NULL))
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at
+    ON t_revoked_tokens(expires_at);
+
+COMMENT ON TABLE t_revoked_tokens IS 'アクセストークン失効リスト';
+COMMENT ON COLUMN t_revoked_tokens.jti IS '失効させるトークンのID（トークン単位の失効）';
+COMMENT ON COLUMN t_revoked_tokens.user_id IS '対象ユーザーID（ユーザー単位の失効）';
+COMMENT ON COLUMN t_revoked_tokens.issued_before IS 'この日時以前に発行されたトークンを失効（ユーザー単位の失効）';
+COMMENT ON COLUMN t_revoked_tokens.expires_at IS '失効情報の保持期限（対象トークンの最長有効期限）';
@@ -0,0 +1,28 @@
+-- ==================================================================
+-- V43: リフレッシュトークンのハッシュ化と期限切れ削除用インデックス
+-- ==================================================================
+-- 目的: リフレッシュトークンを平文で保存しない。期限切れ行の定期削除を索引で絞り込む
+-- 方針:
+--   - token（平文）を SHA-256 の16進文字列 token_hash に置換（既存トークンは引き続き利用可能）
+--   - token_hash に一意インデックスを作成し、更新時の検索を1件の索引参照にする
+--   - expires_at の索引で定期削除（一定件数ずつ）の対象行を特定する
+-- ==================================================================
+
+ALTER TABLE refresh_tokens
+    ADD COLUMN IF NOT EXISTS token_hash CHAR(64);
+
+UPDATE refresh_tokens
+SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex')
+WHERE token_hash IS NULL;
+
+ALTER TABLE refresh_tokens
+    ALTER COLUMN token_hash SET NOT NULL,
+    DROP COLUMN IF EXISTS token;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_tokens_token_hash
+    ON refresh_tokens(token_hash);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at
+    ON refresh_tokens(expires_at);
+
+COMMENT ON COLUMN refresh_tokens.token_hash IS 'リフレッシュトークンのSHA-256ハッシュ（16進）';
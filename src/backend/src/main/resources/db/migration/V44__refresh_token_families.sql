@@ -0,0 +1,28 @@
+-- ==================================================================
+-- V44: リフレッシュトークンのセッションファミリー
+-- ==================================================================
+-- 目的: 端末ごとにログインセッションを独立させ、トークンの再利用（漏洩）を検知する
+-- 方針:
+--   - ログインごとに family_id を採番し、ローテーションで発行したトークンは同じ family_id を引き継ぐ
+--   - ローテーションは used_at IS NULL を条件とする1行の UPDATE で使用済みにする（先着1件のみ成功）
+--   - 使用済みトークンが猶予時間後に再提示された場合は再利用とみなし、ファミリー全体を失効
+--   - 使用済みの行は再利用検知のため有効期限まで保持し、期限切れ削除（V43）で消す
+-- ==================================================================
+
+ALTER TABLE refresh_tokens
+    ADD COLUMN IF NOT EXISTS family_id VARCHAR(36),
+    ADD COLUMN IF NOT EXISTS used_at TIMESTAMP;
+
+-- 既存トークンは1件ずつ別ファミリーとする
+UPDATE refresh_tokens
+SET family_id = gen_random_uuid()::text
+WHERE family_id IS NULL;
+
+ALTER TABLE refresh_tokens
+    ALTER COLUMN family_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family
+    ON refresh_tokens(family_id);
+
+COMMENT ON COLUMN refresh_tokens.family_id IS 'セッションファミリーID（ログイン単位。ローテーションで引き継ぐ）';
+COMMENT ON COLUMN refresh_tokens.used_at IS 'ローテーションで使用済みになった日時';
@@ -0,0 +1,23 @@
+-- ==================================================================
+-- V45: ログイン試行回数（クラスタ共通のレート制限用）
+-- ==================================================================
+-- 目的: 複数ノード構成でも、メールアドレス・接続元IPごとのログイン試行回数を共通で制限する
+-- 方針:
+--   - 固定時間枠ごとの試行回数を UPSERT で加算し、加算後の値で上限判定する
+--   - 各ノードのメモリ上の制限（トークンバケット）を通過した試行のみ記録する
+--   - 終了した時間枠の行は定期削除する
+-- ==================================================================
+
+CREATE TABLE IF NOT EXISTS t_login_attempts (
+    limit_key VARCHAR(320) NOT NULL,
+    window_start TIMESTAMP NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT t_login_attempts_pkey PRIMARY KEY (limit_key, window_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_login_attempts_window
+    ON t_login_attempts(window_start);
+
+COMMENT ON TABLE t_login_attempts IS 'ログイン試行回数（時間枠ごと）';
+COMMENT ON COLUMN t_login_attempts.limit_key IS '制限キー（email:メールアドレス / ip:接続元IP）';
+COMMENT ON COLUMN t_login_attempts.window_start IS '時間枠の開始日時';
@@ -0,0 +1,26 @@
+-- ==================================================================
+-- V46: アクセストークン署名鍵（RS256）
+-- ==================================================================
+-- 目的: 共有秘密鍵（HS256）から公開鍵暗号方式の署名へ移行し、検証側には公開鍵（JWKS）のみを配布する
+-- 方針:
+--   - 鍵は kid で識別し、トークンのヘッダーに kid を含める
+--   - 新しい鍵は activate_at を将来日時にして先に登録・公開し、検証側のキャッシュ更新後に署名へ使用
+--   - 旧鍵は retire_at（新鍵の使用開始 + アクセストークン有効期限）まで検証用に残す
+-- ==================================================================
+
+CREATE TABLE IF NOT EXISTS m_jwt_signing_keys (
+    kid VARCHAR(64) PRIMARY KEY,
+    algorithm VARCHAR(10) NOT NULL,
+    public_key TEXT NOT NULL,
+    private_key TEXT NOT NULL,
+    activate_at TIMESTAMP NOT NULL,
+    retire_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE m_jwt_signing_keys IS 'アクセストークン署名鍵';
+COMMENT ON COLUMN m_jwt_signing_keys.kid IS '鍵ID（JWTヘッダーのkid）';
+COMMENT ON COLUMN m_jwt_signing_keys.public_key IS '公開鍵（X.509 DER のBase64）';
+COMMENT ON COLUMN m_jwt_signing_keys.private_key IS '秘密鍵（PKCS#8 DER のBase64）';
+COMMENT ON COLUMN m_jwt_signing_keys.activate_at IS '署名への使用開始日時（それ以前はJWKSでの公開のみ）';
+COMMENT ON COLUMN m_jwt_signing_keys.retire_at IS '検証の終了日時（NULLは現役）';
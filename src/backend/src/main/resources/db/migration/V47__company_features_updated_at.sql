@@ -0,0 +1,30 @@
+-- ==================================================================
+-- V47: 企業機能設定の更新日時
+-- ==================================================================
+-- 目的: リクエスト単位の機能判定をメモリ上の企業別ビット列で行うため、
+--       他ノードでの機能の有効/無効切り替えを数秒以内に検知できるようにする
+-- 方針:
+--   - m_company_features に updated_at を追加し、INSERT/UPDATE 時にトリガーで現在時刻を設定
+--   - 各ノードは直近に更新された企業IDを定期的に取得し、該当企業のビット列を破棄
+--   - 行の削除は検知対象外（アプリケーションは削除せず is_enabled で無効化する）
+-- ==================================================================
+
+ALTER TABLE m_company_features
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+COMMENT ON COLUMN m_company_features.updated_at IS '更新日時（機能判定キャッシュの無効化に使用）';
+
+CREATE OR REPLACE FUNCTION touch_company_feature_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at := CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_company_features_updated_at ON m_company_features;
+CREATE TRIGGER trg_company_features_updated_at
+    BEFORE INSERT OR UPDATE ON m_company_features
+    FOR EACH ROW EXECUTE FUNCTION touch_company_feature_updated_at();
+
+CREATE INDEX IF NOT EXISTS idx_company_features_updated_at
+    ON m_company_features(updated_at);
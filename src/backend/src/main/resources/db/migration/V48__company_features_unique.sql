@@ -0,0 +1,16 @@
+-- ==================================================================
+-- V48: 企業機能設定の一意制約
+-- ==================================================================
+-- 目的: 複数企業への機能の一括展開を1回の UPSERT（INSERT ... ON CONFLICT）で行うため、
+--       (company_id, feature_id) を一意にする
+-- 方針: 重複行は最新（id 最大）の行を残して削除してから制約を追加
+-- ==================================================================
+
+DELETE FROM m_company_features cf
+USING m_company_features newer
+WHERE newer.company_id = cf.company_id
+  AND newer.feature_id = cf.feature_id
+  AND newer.id > cf.id;
+
+ALTER TABLE m_company_features
+    ADD CONSTRAINT uk_company_features_company_feature UNIQUE (company_id, feature_id);
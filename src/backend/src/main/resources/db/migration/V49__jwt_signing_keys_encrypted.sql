@@ -0,0 +1,11 @@
+-- ==================================================================
+-- V49: アクセストークン署名鍵の秘密鍵の暗号化
+-- ==================================================================
+-- 目的: データベースのダンプ・バックアップ・参照権限のみでトークンを偽造できないようにする
+-- 方針:
+--   - private_key は設定の鍵暗号化鍵（security.jwt.key-encryption-key）で AES-GCM 暗号化した値を保存
+--   - 既存の平文の行はアプリケーションの鍵読込時に暗号化して書き戻す（鍵暗号化鍵はDBに置かない）
+-- ==================================================================
+
+COMMENT ON COLUMN m_jwt_signing_keys.private_key
+    IS '秘密鍵（PKCS#8 DER を AES-GCM で暗号化した "v1:" 付きBase64、付加データは kid）';
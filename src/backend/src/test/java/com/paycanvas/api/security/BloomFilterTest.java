@@ -0,0 +1,35 @@
+package com.paycanvas.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTest {
+
+  @Test
+  public void neverMissesRegisteredKeys() {
+    BloomFilter filter = new BloomFilter(1_000, 0.001);
+    for (int i = 0; i < 1_000; i++) {
+      filter.put("j:" + i);
+    }
+    for (int i = 0; i < 1_000; i++) {
+      assertTrue(filter.mightContain("j:" + i));
+    }
+  }
+
+  @Test
+  public void keepsFalsePositivesNearConfiguredRate() {
+    BloomFilter filter = new BloomFilter(1_000, 0.001);
+    for (int i = 0; i < 1_000; i++) {
+      filter.put("u:" + i);
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("x:" + i)) {
+        falsePositives++;
+      }
+    }
+    // 想定0.1%（100件）に対し余裕を持たせて判定する
+    assertTrue(falsePositives < 500, "false positives: " + falsePositives);
+  }
+}
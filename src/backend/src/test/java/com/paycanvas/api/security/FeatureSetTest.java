@@ -0,0 +1,51 @@
+package com.paycanvas.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class FeatureSetTest {
+
+  @Test
+  public void containsOnlyGivenIds() {
+    FeatureSet set = FeatureSet.of(List.of(1, 3, 64, 130));
+
+    assertTrue(set.contains(1));
+    assertTrue(set.contains(3));
+    assertTrue(set.contains(64));
+    assertTrue(set.contains(130));
+    assertFalse(set.contains(0));
+    assertFalse(set.contains(2));
+    assertFalse(set.contains(65));
+    assertFalse(set.contains(1000));
+    assertFalse(set.contains(-1));
+    assertEquals(4, set.size());
+  }
+
+  @Test
+  public void roundTripsThroughClaim() {
+    FeatureSet set = FeatureSet.of(List.of(1, 2, 3, 9, 70));
+
+    String claim = set.encode();
+
+    assertTrue(claim.startsWith(FeatureSet.FORMAT_VERSION + "."));
+    assertEquals(set, FeatureSet.decode(claim));
+    assertEquals("1.Dg", FeatureSet.of(List.of(1, 2, 3)).encode());
+  }
+
+  @Test
+  public void emptySetEncodesToVersionOnly() {
+    assertEquals("1.", FeatureSet.empty().encode());
+    assertEquals(FeatureSet.empty(), FeatureSet.decode("1."));
+  }
+
+  @Test
+  public void unknownVersionOrMissingClaimIsEmpty() {
+    assertEquals(0, FeatureSet.decode(null).size());
+    assertEquals(0, FeatureSet.decode("2.Dg").size());
+    assertEquals(0, FeatureSet.decode("Dg").size());
+  }
+}
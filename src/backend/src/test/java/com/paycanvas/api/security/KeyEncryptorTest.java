@@ -0,0 +1,44 @@
+package com.paycanvas.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class KeyEncryptorTest {
+  private static final byte[] KEK =
+      "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] SECRET = "private-key-bytes".getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  public void roundTripsWithSameKeyAndAssociatedData() {
+    KeyEncryptor encryptor = new KeyEncryptor(KEK);
+
+    String encrypted = encryptor.encrypt(SECRET, "kid-1");
+
+    assertTrue(KeyEncryptor.isEncrypted(encrypted));
+    assertFalse(KeyEncryptor.isEncrypted("MIIEvQIBADANBgkqhkiG9w0BAQEFAASC"));
+    assertArrayEquals(SECRET, encryptor.decrypt(encrypted, "kid-1"));
+    assertNotEquals(encrypted, encryptor.encrypt(SECRET, "kid-1"));
+  }
+
+  @Test
+  public void rejectsOtherAssociatedDataOrKey() {
+    String encrypted = new KeyEncryptor(KEK).encrypt(SECRET, "kid-1");
+    byte[] otherKek = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8);
+
+    assertThrows(
+        IllegalStateException.class, () -> new KeyEncryptor(KEK).decrypt(encrypted, "kid-2"));
+    assertThrows(
+        IllegalStateException.class, () -> new KeyEncryptor(otherKek).decrypt(encrypted, "kid-1"));
+  }
+
+  @Test
+  public void rejectsInvalidKeyLength() {
+    assertThrows(IllegalArgumentException.class, () -> new KeyEncryptor(new byte[10]));
+  }
+}
@@ -0,0 +1,39 @@
+package com.paycanvas.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  public void allowsBurstThenRefillsOnePerInterval() {
+    TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+
+    assertTrue(bucket.tryAcquire(0));
+    assertTrue(bucket.tryAcquire(0));
+    assertTrue(bucket.tryAcquire(0));
+    assertFalse(bucket.tryAcquire(0));
+    assertFalse(bucket.tryAcquire(SECOND - 1));
+    assertTrue(bucket.tryAcquire(SECOND));
+    assertFalse(bucket.tryAcquire(SECOND));
+  }
+
+  @Test
+  public void becomesFullAfterIdlePeriod() {
+    TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+    bucket.tryAcquire(0);
+    bucket.tryAcquire(0);
+
+    assertFalse(bucket.isFull(2 * SECOND - 1));
+    assertTrue(bucket.isFull(2 * SECOND));
+    // 満杯に戻った後は再び連続で許可される
+    assertTrue(bucket.tryAcquire(10 * SECOND));
+    assertTrue(bucket.tryAcquire(10 * SECOND));
+    assertTrue(bucket.tryAcquire(10 * SECOND));
+    assertFalse(bucket.tryAcquire(10 * SECOND));
+  }
+}
@@ -0,0 +1,56 @@
+package com.paycanvas.api.service.attendance;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class AttendanceRuleEngineTest {
+  private static final int STORE = 1;
+  private static final int OTHER_COMPANY_STORE = 99;
+  private final AttendanceRuleEngine engine = new AttendanceRuleEngine(id -> id == STORE);
+
+  @Test
+  public void flagsRowLevelAnomalies() {
+    AttendanceRow row = row(OTHER_COMPANY_STORE, LocalDate.of(2024, 4, 1), 10, null, 15);
+
+    int flags = engine.evaluateRow(row);
+
+    assertEquals(
+        AttendanceAnomaly.MISSING_CHECK_OUT.bit()
+            | AttendanceAnomaly.TARDY.bit()
+            | AttendanceAnomaly.UNKNOWN_STORE.bit(),
+        flags);
+  }
+
+  @Test
+  public void flagsOverlapsAcrossMidnightOnly() {
+    // 4/1 18:00〜翌2:00 と 4/2 1:00〜9:00 は重複、4/2 10:00〜19:00 は重複なし
+    List<AttendanceRow> rows =
+        List.of(
+            row(STORE, LocalDate.of(2024, 4, 2), 10, 19, null),
+            row(STORE, LocalDate.of(2024, 4, 1), 18, 2, null),
+            row(STORE, LocalDate.of(2024, 4, 2), 1, 9, null));
+
+    int[] flags = engine.evaluateEmployee(rows);
+
+    int overlap = AttendanceAnomaly.OVERLAPPING_SHIFT.bit();
+    assertArrayEquals(new int[] {0, overlap, overlap}, flags);
+  }
+
+  private static AttendanceRow row(
+      int storeId, LocalDate date, Integer checkInHour, Integer checkOutHour, Integer tardy) {
+    return new AttendanceRow(
+        null,
+        1,
+        storeId,
+        date,
+        checkInHour != null ? LocalTime.of(checkInHour, 0) : null,
+        checkOutHour != null ? LocalTime.of(checkOutHour, 0) : null,
+        tardy,
+        "WORK");
+  }
+}
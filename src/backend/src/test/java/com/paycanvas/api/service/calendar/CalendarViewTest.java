@@ -0,0 +1,51 @@
+package com.paycanvas.api.service.calendar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+public class CalendarViewTest {
+  private static final YearBitSet NO_HOLIDAYS = new YearBitSet();
+
+  @Test
+  public void countsBitsAcrossWordBoundaries() {
+    YearBitSet bits = new YearBitSet();
+    for (LocalDate date = LocalDate.of(2024, 1, 1); date.getYear() == 2024; date = date.plusDays(1)) {
+      bits.set(date);
+    }
+    bits.clear(LocalDate.of(2024, 3, 5)); // 65日目（2ワード目の先頭）
+
+    assertEquals(365, bits.count(1, 366));
+    assertEquals(63, bits.count(2, 64));
+    assertEquals(0, bits.count(65, 65));
+    assertEquals(1, bits.count(366, 366));
+    assertFalse(bits.get(LocalDate.of(2024, 3, 5)));
+  }
+
+  @Test
+  public void countsWorkdaysAcrossYears() {
+    // 毎週月曜定休
+    int closed = CalendarView.dayMask(DayOfWeek.MONDAY);
+    CalendarView view = new CalendarView(year -> weekdaysExcept(year, closed), year -> NO_HOLIDAYS, 0);
+
+    assertFalse(view.isWorkday(LocalDate.of(2024, 12, 30)));
+    assertTrue(view.isWorkday(LocalDate.of(2024, 12, 31)));
+    // 2024-12-29〜2025-01-04 の7日間のうち月曜は1日
+    assertEquals(6, view.countWorkdays(LocalDate.of(2024, 12, 29), LocalDate.of(2025, 1, 4)));
+    assertTrue(view.isLegalHoliday(LocalDate.of(2025, 1, 5)));
+  }
+
+  private static YearBitSet weekdaysExcept(int year, int closedMask) {
+    YearBitSet bits = new YearBitSet();
+    for (LocalDate date = LocalDate.of(year, 1, 1); date.getYear() == year; date = date.plusDays(1)) {
+      if ((closedMask & CalendarView.dayMask(date.getDayOfWeek())) == 0) {
+        bits.set(date);
+      }
+    }
+    return bits;
+  }
+}
@@ -0,0 +1,82 @@
+package com.paycanvas.api.service.payroll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.paycanvas.api.service.payroll.PremiumPayEngine.PremiumBreakdown;
+import com.paycanvas.api.service.payroll.PremiumPayEngine.Shift;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+public class PremiumPayEngineTest {
+  private static final Predicate<LocalDate> SUNDAY = date -> date.getDayOfWeek() == DayOfWeek.SUNDAY;
+
+  @Test
+  public void countsLateNightMinutesForShiftCrossingMidnight() {
+    // 18:00〜翌3:00、労働8時間（休憩60分は中央の22:00〜23:00）
+    Shift shift = Shift.of(LocalDate.of(2024, 4, 2), LocalTime.of(18, 0), LocalTime.of(3, 0), 8);
+
+    PremiumBreakdown result = new PremiumPayEngine().calculate(List.of(shift), SUNDAY, 0, 1500);
+
+    assertEquals(480, result.workedMinutes());
+    assertEquals(240, result.lateNightMinutes());
+    assertEquals(0, result.legalOvertimeMinutes());
+  }
+
+  @Test
+  public void splitsDailyOvertimeAndLateNightOvertime() {
+    Shift shift = Shift.of(LocalDate.of(2024, 4, 2), LocalTime.of(14, 0), LocalTime.of(0, 0), null);
+
+    PremiumBreakdown result = new PremiumPayEngine().calculate(List.of(shift), SUNDAY, 0, 1500);
+
+    assertEquals(600, result.workedMinutes());
+    assertEquals(120, result.legalOvertimeMinutes());
+    assertEquals(120, result.lateNightMinutes());
+    assertEquals(120, result.lateNightOvertimeMinutes());
+  }
+
+  @Test
+  public void countsWeeklyOvertimeBeyondFortyHours() {
+    List<Shift> shifts = new ArrayList<>();
+    for (int day = 1; day <= 6; day++) {
+      shifts.add(Shift.of(LocalDate.of(2024, 4, day), LocalTime.of(9, 0), LocalTime.of(17, 0), 8));
+    }
+
+    PremiumBreakdown result = new PremiumPayEngine().calculate(shifts, SUNDAY, 0, 1500);
+
+    assertEquals(2880, result.workedMinutes());
+    assertEquals(480, result.legalOvertimeMinutes());
+  }
+
+  @Test
+  public void paysOnlyOvertimeBeyondFixedMinutesPlusNightAndHolidayPremiums() {
+    List<Shift> shifts =
+        List.of(
+            Shift.of(LocalDate.of(2024, 4, 1), LocalTime.of(9, 0), LocalTime.of(20, 0), 10),
+            Shift.of(LocalDate.of(2024, 4, 2), LocalTime.of(18, 0), LocalTime.of(3, 0), 8),
+            Shift.of(LocalDate.of(2024, 4, 7), LocalTime.of(10, 0), LocalTime.of(18, 0), null));
+
+    PremiumBreakdown result = new PremiumPayEngine().calculate(shifts, SUNDAY, 60, 1500);
+
+    assertEquals(120, result.legalOvertimeMinutes());
+    assertEquals(60, result.paidOvertimeMinutes());
+    assertEquals(480, result.holidayMinutes());
+    // (60 * 1.25 + 240 * 0.25 + 480 * 1.35) 分 × 1500円 / 60
+    assertEquals(19575, result.overtimePay());
+  }
+
+  @Test
+  public void findsPositionAfterNthMinute() {
+    MinuteBitmap bitmap = new MinuteBitmap();
+    bitmap.set(60, 70);
+    bitmap.set(100, 200);
+
+    assertEquals(70, bitmap.positionAfter(10));
+    assertEquals(101, bitmap.positionAfter(11));
+    assertEquals(MinuteBitmap.MINUTES, bitmap.positionAfter(500));
+  }
+}
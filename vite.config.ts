@@ -9,7 +9,9 @@ export default defineConfig({
     proxy: {
       '/api': {
         target: 'http://localhost:8080',
-        changeOrigin: true
+        changeOrigin: true,
+        // ログイン試行回数の制限を接続元IP単位で行うため、X-Forwarded-For を付与する
+        xfwd: true
       }
     }
   }